@@ -0,0 +1,93 @@
+package com.example.backend;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.example.backend.model.MenuItem;
+import com.example.backend.model.Order;
+import com.example.backend.model.OrderItem;
+import com.example.backend.model.Table;
+import com.example.backend.model.User;
+
+/**
+ * Synthetic orders and menus for the benchmarks. A fixed seed keeps every run, and
+ * every release, measuring the same data.
+ */
+public final class BenchmarkData {
+
+    private static final String[] CATEGORIES = { "Coffee", "Tea", "Juice", "Cake", "Snack" };
+    private static final String[] STATUSES = { "PENDING", "CONFIRMED", "OCCUPIED", "PAID", "PAID" };
+
+    private BenchmarkData() {
+    }
+
+    public static Order order(Random random, int itemCount, LocalDateTime orderTime) {
+        Table table = new Table();
+        table.setId(hexId(random));
+        table.setTableNumber(1 + random.nextInt(40));
+        table.setSeats(2 + random.nextInt(6));
+        table.setStatus("OCCUPIED");
+
+        User user = new User();
+        user.setId(hexId(random));
+        user.setUsername("customer" + random.nextInt(500));
+        user.setFullName("Customer " + random.nextInt(500));
+        user.setPhone("09" + (10_000_000 + random.nextInt(89_999_999)));
+
+        Order order = new Order();
+        order.setId(hexId(random));
+        order.setTable(table);
+        order.setUser(user);
+        order.setOrderTime(orderTime);
+        order.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+        if ("PAID".equals(order.getStatus())) {
+            order.setPaidTime(orderTime.plusMinutes(30 + random.nextInt(90)));
+        }
+
+        double total = 0.0;
+        for (int i = 0; i < itemCount; i++) {
+            OrderItem item = new OrderItem();
+            item.setMenuItemId(hexId(random));
+            item.setName("Món " + random.nextInt(60));
+            item.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            item.setQuantity(1 + random.nextInt(4));
+            item.setPrice(15_000.0 + 5_000 * random.nextInt(10));
+            item.setSubtotal(item.getPrice() * item.getQuantity());
+            order.getItems().add(item);
+            total += item.getSubtotal();
+        }
+        order.setTotalAmount(total);
+        return order;
+    }
+
+    public static List<Order> ordersOfDay(long seed, int count, LocalDateTime start) {
+        Random random = new Random(seed);
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            orders.add(order(random, 1 + random.nextInt(6), start.plusSeconds(random.nextInt(86_400))));
+        }
+        return orders;
+    }
+
+    public static List<MenuItem> menu(long seed, int count) {
+        Random random = new Random(seed);
+        List<MenuItem> menu = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MenuItem item = new MenuItem();
+            item.setId(hexId(random));
+            item.setName("Món " + i);
+            item.setDescription("Mô tả món " + i + ", phục vụ nóng hoặc đá");
+            item.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            item.setPrice(15_000.0 + 5_000 * random.nextInt(10));
+            item.setAvailable(random.nextInt(10) != 0);
+            menu.add(item);
+        }
+        return menu;
+    }
+
+    private static String hexId(Random random) {
+        return String.format("%08x%016x", random.nextInt(), random.nextLong());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.backend.BenchmarkData;
+import com.example.backend.model.Order;
+import com.example.backend.util.DtoMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jackson cost of an order event: writing the STOMP payload, and the
+ * conversion to a map that the broadcast coalescer does to compute deltas.
+ * The mapper is built like Spring Boot's (JavaTimeModule, ISO dates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderUpdateEventBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    @Param({ "5", "50" })
+    private int items;
+
+    private ObjectMapper objectMapper;
+    private OrderUpdateEvent event;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Order order = BenchmarkData.order(new Random(42), items, LocalDateTime.of(2025, 1, 15, 10, 0));
+        event = new OrderUpdateEvent("updated", order.getId(), order.getTable().getId(), order.getUser().getId(),
+                order.getTotalAmount(), order.getStatus(), DtoMapper.toOrderResponseDto(order));
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public Map<String, Object> convertToMap() {
+        return objectMapper.convertValue(event, MAP_TYPE);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.backend.BenchmarkData;
+import com.example.backend.model.MenuItem;
+import com.example.backend.repository.MenuItemRepository;
+import com.example.backend.util.DtoMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Per-request CPU cost of GET /api/menu/available: mapping the catalog to DTOs
+ * and serializing them on every request (and gzipping, as server-side
+ * compression would), against handing out the bytes {@link MenuResponseCache}
+ * rendered for the current catalog version.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MenuResponseBenchmark {
+
+    @Param({ "20", "200" })
+    private int items;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private MenuCatalog menuCatalog;
+    private MenuResponseCache menuResponseCache;
+
+    @Setup
+    public void setUp() {
+        List<MenuItem> menu = BenchmarkData.menu(42, items);
+        MenuItemRepository repository = (MenuItemRepository) Proxy.newProxyInstance(
+                MenuItemRepository.class.getClassLoader(), new Class<?>[] { MenuItemRepository.class },
+                (proxy, method, args) -> "findAll".equals(method.getName()) ? menu : null);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        menuCatalog = new MenuCatalog(repository, meterRegistry);
+        menuResponseCache = new MenuResponseCache(menuCatalog, objectMapper, new ResourceVersions("local", Duration.ZERO), meterRegistry);
+        menuResponseCache.available();
+    }
+
+    @Benchmark
+    public byte[] serializePerRequest() throws IOException {
+        return serialize();
+    }
+
+    @Benchmark
+    public byte[] serializeAndGzipPerRequest() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(serialize());
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] cachedJson() {
+        return menuResponseCache.available().json();
+    }
+
+    @Benchmark
+    public byte[] cachedGzip() {
+        return menuResponseCache.available().gzip();
+    }
+
+    private byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(menuCatalog.snapshot().available().stream()
+                .map(DtoMapper::toMenuItemResponseDto)
+                .toList());
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.backend.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.backend.BenchmarkData;
+import com.example.backend.dto.ReportResponse;
+import com.example.backend.model.Order;
+
+/**
+ * In-memory part of a rollup backfill over one day of orders: the scan
+ * summary and the report built from it, as ReportService runs them when a
+ * day has no complete rollup yet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReportServiceBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    private int orders;
+
+    private List<Order> dayOrders;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @Setup
+    public void setUp() {
+        LocalDate day = LocalDate.of(2025, 1, 15);
+        start = day.atStartOfDay();
+        end = day.plusDays(1).atStartOfDay();
+        dayOrders = BenchmarkData.ordersOfDay(42, orders, start);
+    }
+
+    @Benchmark
+    public ReportResponse backfillReport() {
+        return ReportService.toReport(ReportService.summarize(dayOrders, end), start, end);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.backend.util;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.backend.BenchmarkData;
+import com.example.backend.dto.OrderResponseDto;
+import com.example.backend.model.Order;
+
+/**
+ * Cost of mapping one order to its response DTO as the number of line items
+ * grows; every order broadcast and every admin listing pays it per order.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DtoMapperBenchmark {
+
+    @Param({ "5", "50", "500" })
+    private int items;
+
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        order = BenchmarkData.order(new Random(42), items, LocalDateTime.of(2025, 1, 15, 10, 0));
+    }
+
+    @Benchmark
+    public OrderResponseDto toOrderResponseDto() {
+        return DtoMapper.toOrderResponseDto(order);
+    }
+}
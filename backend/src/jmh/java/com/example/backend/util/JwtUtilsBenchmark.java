@@ -0,0 +1,76 @@
+package com.example.backend.util;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Compares the per-request cost of authenticating a token: the previous
+ * filter path (three parses, each with a fresh key and parser), a single
+ * verified parse, and a repeat request answered from the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtUtilsBenchmark {
+
+    private static final String SECRET = "cafeSecretKeyForJWTTokenGenerationAndValidation12345678901234567890";
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheSize", 10_000L);
+        ReflectionTestUtils.setField(jwtUtils, "meterRegistry", new SimpleMeterRegistry());
+        jwtUtils.init();
+        token = jwtUtils.generateJwtToken("customer", "USER", "652f1c2e9b1d4a0012345678");
+        jwtUtils.parseJwtToken(token);
+    }
+
+    @Benchmark
+    public void legacyTripleParse(Blackhole blackhole) {
+        blackhole.consume(legacyParser().parseSignedClaims(token));
+        blackhole.consume(legacyParser().parseSignedClaims(token).getPayload().getSubject());
+        Claims claims = legacyParser().parseSignedClaims(token).getPayload();
+        blackhole.consume(claims.get("role", String.class));
+    }
+
+    @Benchmark
+    public JwtPrincipal singleVerifiedParse() {
+        return jwtUtils.verifyJwtToken(token);
+    }
+
+    @Benchmark
+    public JwtPrincipal cachedParse() {
+        return jwtUtils.parseJwtToken(token);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtils.generateJwtToken("customer", "USER", "652f1c2e9b1d4a0012345678");
+    }
+
+    private static io.jsonwebtoken.JwtParser legacyParser() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        return Jwts.parser().verifyWith(key).build();
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.backend.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.backend.BackendApplication;
+import com.example.backend.model.MenuItem;
+import com.example.backend.model.Table;
+import com.example.backend.repository.TableRepository;
+import com.example.backend.service.MenuService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Release check for booking throughput. Boots the application against an
+ * embedded MongoDB and runs complete customer flows concurrently:
+ * book table → confirm → check-in → complete → daily report. Each virtual
+ * user logs in once and reuses its token, like a real session, so the
+ * bcrypt pool is not the bottleneck being measured. Prints completed flows
+ * per second (failed flows are not counted), a latency histogram per step
+ * and the MongoDB commands each step issued on average.
+ *
+ * Run with: ./gradlew bookingLoadTest [-Pflows=2000] [-Pconcurrency=64]
+ */
+public class BookingFlowLoadTest {
+
+    private static final List<String> STEPS = List.of("login", "book", "confirm", "check-in", "complete", "report");
+    private static final int WARMUP_FLOWS = 100;
+
+    public static void main(String[] args) throws Exception {
+        int flows = Integer.getInteger("loadtest.flows", 2000);
+        int concurrency = Integer.getInteger("loadtest.concurrency", 64);
+        boolean virtual = Boolean.getBoolean("loadtest.virtual");
+
+        MongoOperationCounter operationCounter = new MongoOperationCounter();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                .initializers(ctx -> {
+                    ctx.getBeanFactory().registerSingleton("loadStepFilter", new LoadStepFilter());
+                    ctx.getBeanFactory().registerSingleton("loadTestCommandListener",
+                            (MongoClientSettingsBuilderCustomizer) settings -> settings
+                                    .addCommandListener(operationCounter));
+                })
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--de.flapdoodle.mongodb.embedded.version=7.0.14",
+                        "--spring.devtools.restart.enabled=false",
+                        "--logging.level.root=WARN")) {
+            BookingFlowLoadTest test = new BookingFlowLoadTest(context);
+            test.seed(WARMUP_FLOWS + flows);
+
+            test.run(WARMUP_FLOWS, concurrency);
+            operationCounter.reset();
+
+            long started = System.nanoTime();
+            Result result = test.run(flows, concurrency);
+            double seconds = (System.nanoTime() - started) / 1e9;
+            Map<String, LatencyHistogram> histograms = result.histograms();
+
+            int succeeded = 0;
+            for (LatencyHistogram histogram : histograms.values()) {
+                succeeded += histogram.count() - histogram.errors();
+            }
+            System.out.printf("%nflows=%d (completed=%d, failed=%d), concurrency=%d, threads=%s%n", flows,
+                    result.completed(), flows - result.completed(), concurrency, virtual ? "virtual" : "platform");
+            System.out.printf("throughput: %.1f completed flows/s (%.1f successful requests/s)%n",
+                    result.completed() / seconds, succeeded / seconds);
+            for (String step : STEPS) {
+                LatencyHistogram histogram = histograms.get(step);
+                System.out.printf("%n%-9s n=%d errors=%d p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms%n",
+                        step, histogram.count(), histogram.errors(), histogram.percentileMillis(0.50),
+                        histogram.percentileMillis(0.90), histogram.percentileMillis(0.99),
+                        histogram.percentileMillis(1.0));
+                System.out.printf("    mongo commands per request: %s%n",
+                        perRequest(operationCounter.countsFor(step), histogram.count()));
+                System.out.print(histogram.render());
+            }
+            System.out.printf("%nbackground mongo commands per completed flow: %s%n",
+                    perRequest(operationCounter.countsFor(MongoOperationCounter.BACKGROUND), result.completed()));
+        }
+    }
+
+    record Result(Map<String, LatencyHistogram> histograms, int completed) {
+    }
+
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final TableRepository tableRepository;
+    private final MenuService menuService;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final List<String> tableIds = new ArrayList<>();
+    private final AtomicInteger nextTable = new AtomicInteger();
+    private String menuItemId;
+    private String adminToken;
+
+    BookingFlowLoadTest(ConfigurableApplicationContext context) {
+        this.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        this.objectMapper = context.getBean(ObjectMapper.class);
+        this.tableRepository = context.getBean(TableRepository.class);
+        this.menuService = context.getBean(MenuService.class);
+    }
+
+    void seed(int tables) throws IOException, InterruptedException {
+        MenuItem coffee = new MenuItem();
+        coffee.setName("Cà phê sữa");
+        coffee.setCategory("Coffee");
+        coffee.setPrice(25000.0);
+        // qua MenuService để MenuCatalog được dựng lại như khi admin thêm món
+        menuItemId = menuService.createMenuItem(coffee).getId();
+
+        List<Table> seeded = new ArrayList<>(tables);
+        for (int i = 0; i < tables; i++) {
+            Table table = new Table();
+            table.setTableNumber(i + 1);
+            table.setSeats(4);
+            seeded.add(table);
+        }
+        tableRepository.saveAll(seeded).forEach(table -> tableIds.add(table.getId()));
+
+        adminToken = login("admin", "admin123").path("token").asText();
+    }
+
+    Result run(int flows, int concurrency) {
+        Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+        for (String step : STEPS) {
+            histograms.put(step, new LatencyHistogram(flows));
+        }
+
+        AtomicInteger remaining = new AtomicInteger(flows);
+        AtomicInteger completed = new AtomicInteger();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int u = 0; u < concurrency; u++) {
+                users.submit(() -> {
+                    try {
+                        // mỗi user đăng nhập một lần rồi dùng lại token cho các lượt sau
+                        JsonNode login = timed(histograms.get("login"), post("/api/auth/login", null, "login",
+                                Map.of("username", "customer", "password", "customer123")));
+                        if (login == null) {
+                            return;
+                        }
+                        String token = login.path("token").asText();
+                        String userId = login.path("user").path("id").asText();
+                        while (remaining.getAndDecrement() > 0) {
+                            if (flow(histograms, token, userId)) {
+                                completed.incrementAndGet();
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+        }
+        return new Result(histograms, completed.get());
+    }
+
+    private boolean flow(Map<String, LatencyHistogram> histograms, String token, String userId)
+            throws InterruptedException {
+        String tableId = tableIds.get(nextTable.getAndIncrement());
+
+        JsonNode order = timed(histograms.get("book"), post("/api/orders/book", token, "book", Map.of(
+                "tableId", tableId,
+                "userId", userId,
+                "items", List.of(Map.of("menuItemId", menuItemId, "quantity", 2)))));
+        if (order == null) {
+            return false;
+        }
+        String orderId = order.path("id").asText();
+
+        if (timed(histograms.get("confirm"), put("/api/admin/orders/" + orderId + "/confirm", "confirm")) == null
+                || timed(histograms.get("check-in"), put("/api/admin/tables/" + tableId + "/checkin",
+                        "check-in")) == null
+                || timed(histograms.get("complete"), put("/api/admin/orders/" + orderId + "/complete",
+                        "complete")) == null) {
+            return false;
+        }
+        return timed(histograms.get("report"),
+                request("/api/admin/reports/today", adminToken, "report").GET().build()) != null;
+    }
+
+    private JsonNode timed(LatencyHistogram histogram, HttpRequest request) throws InterruptedException {
+        long sent = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            histogram.record(System.nanoTime() - sent);
+            if (response.statusCode() != 200) {
+                histogram.error();
+                return null;
+            }
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            histogram.error();
+            return null;
+        }
+    }
+
+    private JsonNode login(String username, String password) throws IOException, InterruptedException {
+        HttpRequest request = post("/api/auth/login", null, null,
+                Map.of("username", username, "password", password));
+        return objectMapper.readTree(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+    }
+
+    private HttpRequest post(String path, String token, String step, Object body) {
+        try {
+            return request(path, token, step)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest put(String path, String step) {
+        return request(path, adminToken, step).PUT(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private HttpRequest.Builder request(String path, String token, String step) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        if (step != null) {
+            builder.header(LoadStepFilter.HEADER, step);
+        }
+        return builder;
+    }
+
+    private static String perRequest(Map<String, Long> counts, int requests) {
+        if (counts.isEmpty() || requests == 0) {
+            return "-";
+        }
+        StringBuilder out = new StringBuilder();
+        long total = 0;
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            total += entry.getValue();
+            out.append(String.format("%s=%.2f ", entry.getKey(), (double) entry.getValue() / requests));
+        }
+        return out.append(String.format("(total %.2f)", (double) total / requests)).toString();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.backend.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-capacity latency recorder: keeps every sample, so percentiles are
+ * exact, and prints a coarse millisecond histogram.
+ */
+public class LatencyHistogram {
+
+    private static final double[] BUCKETS_MILLIS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000 };
+
+    private final long[] samples;
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+
+    public LatencyHistogram(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    public void record(long nanos) {
+        int index = size.getAndIncrement();
+        if (index < samples.length) {
+            samples[index] = nanos;
+        }
+    }
+
+    public void error() {
+        errors.incrementAndGet();
+    }
+
+    public int count() {
+        return Math.min(size.get(), samples.length);
+    }
+
+    public int errors() {
+        return errors.get();
+    }
+
+    /** Percentile in milliseconds; p between 0 and 1. */
+    public double percentileMillis(double p) {
+        long[] sorted = sorted();
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    public String render() {
+        long[] sorted = sorted();
+        StringBuilder out = new StringBuilder();
+        int from = 0;
+        for (int b = 0; b <= BUCKETS_MILLIS.length; b++) {
+            int to = from;
+            if (b < BUCKETS_MILLIS.length) {
+                while (to < sorted.length && sorted[to] / 1e6 < BUCKETS_MILLIS[b]) {
+                    to++;
+                }
+            } else {
+                to = sorted.length;
+            }
+            String label = b < BUCKETS_MILLIS.length
+                    ? String.format("< %5.0f ms", BUCKETS_MILLIS[b])
+                    : String.format(">=%5.0f ms", BUCKETS_MILLIS[b - 1]);
+            int count = to - from;
+            int bar = sorted.length == 0 ? 0 : (int) Math.round(40.0 * count / sorted.length);
+            out.append(String.format("    %s %7d %s%n", label, count, "#".repeat(bar)));
+            from = to;
+        }
+        return out.toString();
+    }
+
+    private long[] sorted() {
+        long[] copy = Arrays.copyOf(samples, count());
+        Arrays.sort(copy);
+        return copy;
+    }
+}
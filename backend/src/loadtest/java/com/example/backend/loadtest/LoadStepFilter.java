@@ -0,0 +1,35 @@
+package com.example.backend.loadtest;
+
+import java.io.IOException;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Binds the flow step named in the {@code X-Load-Step} header to the request
+ * thread for {@link MongoOperationCounter}.
+ */
+public class LoadStepFilter implements Filter {
+
+    static final String HEADER = "X-Load-Step";
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        String step = ((HttpServletRequest) request).getHeader(HEADER);
+        if (step == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        MongoOperationCounter.CURRENT_STEP.set(step);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MongoOperationCounter.CURRENT_STEP.remove();
+        }
+    }
+}
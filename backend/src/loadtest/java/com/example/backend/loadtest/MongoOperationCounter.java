@@ -0,0 +1,43 @@
+package com.example.backend.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+/**
+ * Counts MongoDB commands per flow step. The step of the current request is
+ * kept in a thread-local by {@link LoadStepFilter}; the synchronous driver
+ * reports commands on the calling thread, so each command lands on the step
+ * that issued it. Commands from scheduler threads (outbox, coalescer) are
+ * counted as "background".
+ */
+public class MongoOperationCounter implements CommandListener {
+
+    static final String BACKGROUND = "background";
+    static final ThreadLocal<String> CURRENT_STEP = new ThreadLocal<>();
+
+    private final Map<String, Map<String, LongAdder>> counts = new ConcurrentHashMap<>();
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String step = CURRENT_STEP.get();
+        counts.computeIfAbsent(step != null ? step : BACKGROUND, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(event.getCommandName(), key -> new LongAdder())
+                .increment();
+    }
+
+    /** Command counts of one step by command name, sorted by name. */
+    public Map<String, Long> countsFor(String step) {
+        Map<String, Long> byCommand = new TreeMap<>();
+        counts.getOrDefault(step, Map.of()).forEach((command, count) -> byCommand.put(command, count.sum()));
+        return byCommand;
+    }
+
+    public void reset() {
+        counts.clear();
+    }
+}
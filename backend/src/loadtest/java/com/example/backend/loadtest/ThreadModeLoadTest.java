@@ -0,0 +1,197 @@
+package com.example.backend.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.backend.BackendApplication;
+import com.example.backend.model.MenuItem;
+import com.example.backend.model.Table;
+import com.example.backend.repository.TableRepository;
+import com.example.backend.service.MenuService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares the platform-thread default with spring.threads.virtual.enabled=true.
+ * Each mode boots the application against an embedded MongoDB, then drives
+ * GET /api/tables and POST /api/orders/book (one fresh table per booking)
+ * with a fixed number of concurrent clients, and prints throughput and
+ * latency percentiles for both modes side by side.
+ *
+ * Run with: ./gradlew loadTest [-Pconcurrency=1000] [-Prequests=5000]
+ */
+public class ThreadModeLoadTest {
+
+    private static final int LISTED_TABLES = 20;
+    private static final int WARMUP_REQUESTS = 500;
+
+    record Result(String endpoint, String mode, int requests, int errors, double throughput,
+            double p50Millis, double p99Millis, double maxMillis) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = Integer.getInteger("loadtest.concurrency", 1000);
+        int requests = Integer.getInteger("loadtest.requests", 5000);
+
+        List<Result> results = new ArrayList<>();
+        for (boolean virtual : new boolean[] { false, true }) {
+            results.addAll(run(virtual, concurrency, requests));
+        }
+
+        System.out.printf("%nconcurrency=%d, requests=%d%n", concurrency, requests);
+        System.out.printf("%-18s %-9s %8s %7s %10s %9s %9s %9s%n",
+                "endpoint", "mode", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        for (Result r : results) {
+            System.out.printf("%-18s %-9s %8d %7d %10.1f %9.2f %9.2f %9.2f%n",
+                    r.endpoint(), r.mode(), r.requests(), r.errors(), r.throughput(),
+                    r.p50Millis(), r.p99Millis(), r.maxMillis());
+        }
+    }
+
+    private static List<Result> run(boolean virtual, int concurrency, int requests) throws Exception {
+        String mode = virtual ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--de.flapdoodle.mongodb.embedded.version=7.0.14",
+                        "--spring.devtools.restart.enabled=false",
+                        "--logging.level.root=WARN")) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            TableRepository tableRepository = context.getBean(TableRepository.class);
+            MenuService menuService = context.getBean(MenuService.class);
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+
+            JsonNode login = objectMapper.readTree(client.send(
+                    json(baseUrl + "/api/auth/login", null,
+                            objectMapper.writeValueAsString(Map.of("username", "customer", "password", "customer123"))),
+                    HttpResponse.BodyHandlers.ofString()).body());
+            String token = login.path("token").asText();
+            String userId = login.path("user").path("id").asText();
+
+            MenuItem coffee = new MenuItem();
+            coffee.setName("Cà phê sữa");
+            coffee.setCategory("Coffee");
+            coffee.setPrice(25000.0);
+            coffee.setAvailable(true);
+            // qua MenuService để MenuCatalog được dựng lại, booking đọc món từ catalog như thật
+            String menuItemId = menuService.createMenuItem(coffee).getId();
+
+            seedTables(tableRepository, 1, LISTED_TABLES);
+            HttpRequest listTables = HttpRequest.newBuilder(URI.create(baseUrl + "/api/tables"))
+                    .header("Authorization", "Bearer " + token)
+                    .GET()
+                    .build();
+            drive("/api/tables", mode, concurrency, nCopies(listTables, WARMUP_REQUESTS));
+            Result tables = drive("/api/tables", mode, concurrency, nCopies(listTables, requests));
+
+            List<Table> bookable = seedTables(tableRepository, LISTED_TABLES + 1, WARMUP_REQUESTS + requests);
+            List<HttpRequest> bookings = new ArrayList<>();
+            for (Table table : bookable) {
+                String body = objectMapper.writeValueAsString(Map.of(
+                        "tableId", table.getId(),
+                        "userId", userId,
+                        "items", List.of(Map.of("menuItemId", menuItemId, "quantity", 2))));
+                bookings.add(json(baseUrl + "/api/orders/book", token, body));
+            }
+            drive("/api/orders/book", mode, concurrency, bookings.subList(0, WARMUP_REQUESTS));
+            Result book = drive("/api/orders/book", mode, concurrency,
+                    bookings.subList(WARMUP_REQUESTS, bookings.size()));
+
+            return List.of(tables, book);
+        }
+    }
+
+    private static Result drive(String endpoint, String mode, int concurrency, List<HttpRequest> requests) {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        long[] latencies = new long[requests.size()];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        long started = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                clients.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < requests.size()) {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(requests.get(i),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        latencies[i] = System.nanoTime() - sent;
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+
+        Arrays.sort(latencies);
+        return new Result(endpoint, mode, requests.size(), errors.get(),
+                requests.size() / (elapsed / 1e9),
+                percentile(latencies, 0.50), percentile(latencies, 0.99),
+                latencies[latencies.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static List<Table> seedTables(TableRepository tableRepository, int firstNumber, int count) {
+        List<Table> tables = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Table table = new Table();
+            table.setTableNumber(firstNumber + i);
+            table.setSeats(4);
+            table.setStatus("AVAILABLE");
+            tables.add(table);
+        }
+        return tableRepository.saveAll(tables);
+    }
+
+    private static List<HttpRequest> nCopies(HttpRequest request, int count) {
+        return new ArrayList<>(Collections.nCopies(count, request));
+    }
+
+    private static HttpRequest json(String url, String token, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+}
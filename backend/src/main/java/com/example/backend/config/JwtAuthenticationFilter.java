@@ -12,6 +12,7 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.example.backend.util.JwtPrincipal;
 import com.example.backend.util.JwtUtils;
 
 import jakarta.servlet.FilterChain;
@@ -32,13 +33,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUsernameFromJwtToken(jwt);
-                String role = jwtUtils.getRoleFromJwtToken(jwt);
+            JwtPrincipal principal = jwt != null ? jwtUtils.parseJwtToken(jwt) : null;
 
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(username,
+            if (principal != null) {
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(principal,
                         null,
-                        Collections.singletonList(new SimpleGrantedAuthority(role)));
+                        Collections.singletonList(new SimpleGrantedAuthority(principal.role())));
 
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
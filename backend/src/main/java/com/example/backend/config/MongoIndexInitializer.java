@@ -0,0 +1,104 @@
+package com.example.backend.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * MongoIndexInitializer - Creates the indexes declared on the @Document
+ * classes (@Indexed, @CompoundIndex) once the context is up, then reads the
+ * index list back from MongoDB and records which declared indexes are
+ * missing. Replaces spring.data.mongodb.auto-index-creation so that a
+ * failing index (e.g. duplicates under a unique key) is reported instead of
+ * aborting startup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoIndexInitializer {
+
+    private final MongoTemplate mongoTemplate;
+
+    private volatile Map<String, Map<String, Object>> report = Map.of();
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void ensureIndexes() {
+        var mappingContext = mongoTemplate.getConverter().getMappingContext();
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(Document.class)) {
+                continue;
+            }
+
+            String collection = entity.getCollection();
+            IndexOperations indexOps = mongoTemplate.indexOps(entity.getType());
+            List<String> expected = new ArrayList<>();
+            List<String> failed = new ArrayList<>();
+            for (IndexDefinition definition : resolver.resolveIndexFor(entity.getTypeInformation())) {
+                String name = indexName(definition);
+                expected.add(name);
+                try {
+                    indexOps.ensureIndex(definition);
+                } catch (RuntimeException e) {
+                    failed.add(name);
+                    log.error("Cannot create index {} on {}: {}", name, collection, e.getMessage());
+                }
+            }
+            if (expected.isEmpty()) {
+                continue;
+            }
+
+            Set<String> present = indexOps.getIndexInfo().stream()
+                    .map(IndexInfo::getName)
+                    .collect(Collectors.toSet());
+            List<String> missing = expected.stream().filter(name -> !present.contains(name)).toList();
+            if (!missing.isEmpty()) {
+                log.warn("Collection {} is missing indexes {}", collection, missing);
+            }
+
+            result.put(collection, Map.of(
+                    "expected", expected,
+                    "present", present.stream().sorted().toList(),
+                    "missing", missing,
+                    "failed", failed));
+        }
+
+        report = result;
+        log.info("Index verification completed for {} collections", result.size());
+    }
+
+    // tên mặc định của MongoDB: field_1_other_-1
+    private static String indexName(IndexDefinition definition) {
+        String name = definition.getIndexOptions().getString("name");
+        if (name != null) {
+            return name;
+        }
+        return definition.getIndexKeys().entrySet().stream()
+                .map(key -> key.getKey() + "_" + key.getValue())
+                .collect(Collectors.joining("_"));
+    }
+
+    /** Per collection: declared, present, missing and failed index names from the last check. */
+    public Map<String, Map<String, Object>> getReport() {
+        return report;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.backend.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+/**
+ * MongoTransactionConfig - Multi-document transactions for state changes and
+ * their outbox events. MongoDB only supports them on a replica set (a
+ * single-node replica set is enough), so the manager is opt-in.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.mongodb.transactions.enabled", havingValue = "true")
+public class MongoTransactionConfig {
+
+    @Bean
+    public MongoTransactionManager mongoTransactionManager(MongoDatabaseFactory databaseFactory) {
+        return new MongoTransactionManager(databaseFactory);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.backend.config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * OrderItemMigration - Moves line items from the legacy order_items collection
+ * into the orders that referenced them through @DBRef.
+ * Orders that already embed their items are left untouched, so the runner is
+ * safe to execute on every startup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderItemMigration implements CommandLineRunner {
+
+    private static final String LEGACY_COLLECTION = "order_items";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.migration.order-items.drop-legacy:false}")
+    private boolean dropLegacy;
+
+    @Override
+    public void run(String... args) {
+        if (!mongoTemplate.collectionExists(LEGACY_COLLECTION)) {
+            return;
+        }
+
+        log.info("Migrating referenced order items into orders...");
+
+        MongoCollection<Document> orders = mongoTemplate.getCollection("orders");
+        MongoCollection<Document> legacyItems = mongoTemplate.getCollection(LEGACY_COLLECTION);
+        MongoCollection<Document> menuItems = mongoTemplate.getCollection("menu_items");
+
+        long migrated = 0;
+        for (Document order : orders.find(Filters.exists("items.$id"))) {
+            List<Object> itemIds = new ArrayList<>();
+            for (Object ref : order.getList("items", Object.class)) {
+                itemIds.add(referencedId(ref));
+            }
+
+            Map<Object, Document> itemsById = new HashMap<>();
+            Set<Object> menuItemIds = new HashSet<>();
+            for (Document item : legacyItems.find(Filters.in("_id", itemIds))) {
+                itemsById.put(item.get("_id"), item);
+                if (item.get("menuItem") != null) {
+                    menuItemIds.add(referencedId(item.get("menuItem")));
+                }
+            }
+
+            Map<Object, Document> menuById = new HashMap<>();
+            for (Document menuItem : menuItems.find(Filters.in("_id", menuItemIds))) {
+                menuById.put(menuItem.get("_id"), menuItem);
+            }
+
+            List<Document> embedded = new ArrayList<>();
+            for (Object itemId : itemIds) {
+                Document item = itemsById.get(itemId);
+                if (item == null) {
+                    log.warn("Order {} references missing order item {}", order.get("_id"), itemId);
+                    continue;
+                }
+
+                Object menuItemId = item.get("menuItem") != null ? referencedId(item.get("menuItem")) : null;
+                Document menuItem = menuItemId != null ? menuById.get(menuItemId) : null;
+
+                Document line = new Document();
+                line.put("menuItemId", menuItemId != null ? menuItemId.toString() : null);
+                line.put("name", menuItem != null ? menuItem.getString("name") : null);
+                line.put("category", menuItem != null ? menuItem.getString("category") : null);
+                line.put("quantity", item.get("quantity"));
+                line.put("price", item.get("price"));
+                line.put("subtotal", item.get("subtotal"));
+                embedded.add(line);
+            }
+
+            orders.updateOne(Filters.eq("_id", order.get("_id")), Updates.set("items", embedded));
+            migrated++;
+        }
+
+        log.info("Order item migration completed: {} orders rewritten", migrated);
+
+        if (dropLegacy) {
+            mongoTemplate.dropCollection(LEGACY_COLLECTION);
+            log.info("Dropped legacy collection {}", LEGACY_COLLECTION);
+        }
+    }
+
+    private static Object referencedId(Object ref) {
+        if (ref instanceof DBRef dbRef) {
+            return dbRef.getId();
+        }
+        return ((Document) ref).get("$id");
+    }
+}
@@ -1,14 +1,18 @@
     package com.example.backend.controller;
 
+    import java.util.Date;
     import java.util.HashMap;
     import java.util.Map;
 
     import org.springframework.beans.factory.annotation.Autowired;
+    import org.springframework.beans.factory.annotation.Value;
     import org.springframework.http.HttpHeaders;
+    import org.springframework.http.HttpStatus;
     import org.springframework.http.ResponseCookie;
     import org.springframework.http.ResponseEntity;
     import org.springframework.security.core.Authentication;
     import org.springframework.security.core.context.SecurityContextHolder;
+    import org.springframework.web.bind.annotation.CookieValue;
     import org.springframework.web.bind.annotation.GetMapping;
     import org.springframework.web.bind.annotation.PostMapping;
     import org.springframework.web.bind.annotation.RequestBody;
@@ -20,16 +24,28 @@
     import com.example.backend.dto.RegisterRequest;
     import com.example.backend.dto.UserResponseDto;
     import com.example.backend.model.User;
+    import com.example.backend.service.PasswordHasher;
+    import com.example.backend.service.RefreshTokenService;
+    import com.example.backend.service.UserProfileCache;
     import com.example.backend.service.UserService;
     import com.example.backend.util.DtoMapper;
+    import com.example.backend.util.JwtPrincipal;
 
     @RestController
     @RequestMapping("/api/auth")
     public class AuthController {
 
+        private static final String REFRESH_COOKIE = "refresh_token";
+
         @Autowired
         private UserService userService;
 
+        @Autowired
+        private UserProfileCache userProfileCache;
+
+        @Value("${app.jwt.refresh-expiration}")
+        private Long refreshExpiration;
+
         @PostMapping("/register")
         public ResponseEntity<?> register(@RequestBody RegisterRequest request) {
             try {
@@ -39,6 +55,10 @@
                 response.put("message", "Đăng ký thành công");
                 response.put("user", userDto);
                 return ResponseEntity.ok(response);
+            } catch (PasswordHasher.BusyException e) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(Map.of("error", e.getMessage()));
             } catch (Exception e) {
                 return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
             }
@@ -49,8 +69,10 @@
             try {
                 Map<String, Object> response = userService.login(request);
                 String token = (String) response.get("token");
+                String refreshToken = (String) response.get("refreshToken");
                 User user = (User) response.get("user");
 
+                // refresh token chỉ nằm trong cookie HttpOnly, không trả về trong body
                 LoginResponseDto loginResponse = DtoMapper.toLoginResponseDto(user, token);
 
                 // Tạo cookie với JWT token
@@ -64,14 +86,61 @@
 
                 return ResponseEntity.ok()
                         .header(HttpHeaders.SET_COOKIE, cookie.toString())
+                        .header(HttpHeaders.SET_COOKIE, refreshCookie(refreshToken).toString())
                         .body(loginResponse);
+            } catch (PasswordHasher.BusyException e) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(Map.of("error", e.getMessage()));
             } catch (Exception e) {
                 return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
             }
         }
 
+        /**
+         * Mints a new access token from the refresh token cookie and rotates
+         * the cookie. No password check and no user lookup. Only an unknown or
+         * expired token clears the cookie with a 401; other failures are
+         * server errors and leave the cookie for a retry.
+         */
+        @PostMapping("/refresh")
+        public ResponseEntity<?> refresh(
+                @CookieValue(name = REFRESH_COOKIE, required = false) String cookieToken) {
+            try {
+                Map<String, Object> response = userService.refresh(cookieToken);
+                String token = (String) response.get("token");
+                String refreshToken = (String) response.get("refreshToken");
+                // cookie hết hạn cùng lúc với phiên, không kéo dài khi xoay vòng
+                long refreshMaxAge = (((Date) response.get("refreshExpiresAt")).getTime()
+                        - System.currentTimeMillis()) / 1000;
+
+                ResponseCookie cookie = ResponseCookie.from("jwt", token)
+                        .httpOnly(true)
+                        .secure(false)
+                        .path("/")
+                        .maxAge(24 * 60 * 60)
+                        .sameSite("Lax")
+                        .build();
+
+                return ResponseEntity.ok()
+                        .header(HttpHeaders.SET_COOKIE, cookie.toString())
+                        .header(HttpHeaders.SET_COOKIE, refreshCookie(refreshToken, refreshMaxAge).toString())
+                        .body(Map.of("token", token));
+            } catch (RefreshTokenService.InvalidTokenException e) {
+                return ResponseEntity.status(401)
+                        .header(HttpHeaders.SET_COOKIE, refreshCookie("").toString())
+                        .body(Map.of("error", e.getMessage()));
+            } catch (Exception e) {
+                return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
+            }
+        }
+
         @PostMapping("/logout")
-        public ResponseEntity<?> logout() {
+        public ResponseEntity<?> logout(
+                @CookieValue(name = REFRESH_COOKIE, required = false) String cookieToken) {
+            // Thu hồi refresh token để không thể dùng lại sau khi đăng xuất
+            userService.logout(cookieToken);
+
             // Xóa cookie bằng cách set maxAge = 0
             ResponseCookie cookie = ResponseCookie.from("jwt", "")
                     .httpOnly(true)
@@ -86,6 +155,7 @@
 
             return ResponseEntity.ok()
                     .header(HttpHeaders.SET_COOKIE, cookie.toString())
+                    .header(HttpHeaders.SET_COOKIE, refreshCookie("").toString())
                     .body(response);
         }
 
@@ -98,18 +168,39 @@
                     return ResponseEntity.status(401).body(Map.of("error", "Chưa đăng nhập"));
                 }
 
-                String username = authentication.getName();
-                User user = userService.findByUsername(username);
+                // id, username và role lấy từ token; họ tên, số điện thoại từ cache
+                JwtPrincipal principal = (JwtPrincipal) authentication.getPrincipal();
+                User user = userProfileCache.findById(principal.userId()).orElse(null);
 
                 if (user == null) {
                     return ResponseEntity.status(404).body(Map.of("error", "Không tìm thấy user"));
                 }
 
-                UserResponseDto userDto = DtoMapper.toUserResponseDto(user);
+                UserResponseDto userDto = UserResponseDto.builder()
+                        .id(principal.userId())
+                        .username(principal.username())
+                        .fullName(user.getFullName())
+                        .phone(user.getPhone())
+                        .role(principal.role())
+                        .build();
                 return ResponseEntity.ok(userDto);
             } catch (Exception e) {
                 return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
             }
         }
 
-    }
\ No newline at end of file
+        // chỉ gửi kèm các request tới /api/auth; giá trị rỗng = xóa cookie
+        private ResponseCookie refreshCookie(String refreshToken) {
+            return refreshCookie(refreshToken, refreshToken.isEmpty() ? 0 : refreshExpiration / 1000);
+        }
+
+        private ResponseCookie refreshCookie(String refreshToken, long maxAgeSeconds) {
+            return ResponseCookie.from(REFRESH_COOKIE, refreshToken)
+                    .httpOnly(true)
+                    .secure(false)
+                    .path("/api/auth")
+                    .maxAge(Math.max(maxAgeSeconds, 0))
+                    .sameSite("Lax")
+                    .build();
+        }
+    }
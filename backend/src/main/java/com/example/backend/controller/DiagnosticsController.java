@@ -0,0 +1,43 @@
+package com.example.backend.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.backend.config.MongoIndexInitializer;
+import com.example.backend.dto.QueryPlanDto;
+import com.example.backend.service.QueryPlanService;
+
+@RestController
+@RequestMapping("/api/admin/diagnostics")
+public class DiagnosticsController {
+
+    @Autowired
+    private MongoIndexInitializer mongoIndexInitializer;
+
+    @Autowired
+    private QueryPlanService queryPlanService;
+
+    @GetMapping("/indexes")
+    public ResponseEntity<Map<String, Map<String, Object>>> getIndexes() {
+        return ResponseEntity.ok(mongoIndexInitializer.getReport());
+    }
+
+    @GetMapping("/query-plans")
+    public ResponseEntity<?> getQueryPlans() {
+        try {
+            List<QueryPlanDto> plans = queryPlanService.explainAll();
+            return ResponseEntity.ok(Map.of(
+                    "collectionScans", plans.stream().filter(QueryPlanDto::isCollectionScan)
+                            .map(QueryPlanDto::getQuery).toList(),
+                    "plans", plans));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package com.example.backend.controller;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,9 +13,11 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.backend.dto.MenuItemResponseDto;
 import com.example.backend.model.MenuItem;
+import com.example.backend.service.MenuResponseCache;
 import com.example.backend.service.MenuService;
 import com.example.backend.util.DtoMapper;
 
@@ -26,22 +28,55 @@ public class MenuController {
     @Autowired
     private MenuService menuService;
 
+    @Autowired
+    private MenuResponseCache menuResponseCache;
+
     @GetMapping("/menu")
-    public ResponseEntity<List<MenuItemResponseDto>> getAllMenuItems() {
-        List<MenuItem> menuItems = menuService.getAllMenuItems();
-        List<MenuItemResponseDto> menuItemDtos = menuItems.stream()
-                .map(DtoMapper::toMenuItemResponseDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(menuItemDtos);
+    public ResponseEntity<byte[]> getAllMenuItems(WebRequest webRequest) {
+        return menuBody(menuResponseCache.all(), webRequest);
     }
 
     @GetMapping("/menu/available")
-    public ResponseEntity<List<MenuItemResponseDto>> getAvailableMenuItems() {
-        List<MenuItem> menuItems = menuService.getAvailableMenuItems();
-        List<MenuItemResponseDto> menuItemDtos = menuItems.stream()
-                .map(DtoMapper::toMenuItemResponseDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(menuItemDtos);
+    public ResponseEntity<byte[]> getAvailableMenuItems(WebRequest webRequest) {
+        return menuBody(menuResponseCache.available(), webRequest);
+    }
+
+    @GetMapping("/menu/category/{category}")
+    public ResponseEntity<byte[]> getAvailableMenuItemsByCategory(@PathVariable String category,
+            WebRequest webRequest) {
+        return menuBody(menuResponseCache.category(category), webRequest);
+    }
+
+    // body đã được serialize (và nén) sẵn, chỉ chọn bản phù hợp với Accept-Encoding
+    private static ResponseEntity<byte[]> menuBody(MenuResponseCache.Body body, WebRequest webRequest) {
+        boolean gzip = acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? body.gzipEtag() : body.etag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzip());
+        }
+        return response.body(body.json());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 
     @PostMapping("/admin/menu")
@@ -1,50 +1,205 @@
 package com.example.backend.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.Principal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.backend.dto.OrderPageResponse;
 import com.example.backend.dto.OrderRequest;
 import com.example.backend.dto.OrderResponseDto;
 import com.example.backend.model.Order;
+import com.example.backend.service.IdempotencyService;
+import com.example.backend.service.OrderExportService;
 import com.example.backend.service.OrderService;
 import com.example.backend.util.DtoMapper;
+import com.example.backend.util.OrderCursor;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
 @RestController
 @RequestMapping("/api")
 public class OrderController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 128;
+
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Books a table. With an Idempotency-Key header, a retry of a booking
+     * that already succeeded gets the original response back (marked with
+     * Idempotent-Replayed) instead of creating a second order or failing on
+     * the now-taken table.
+     */
     @PostMapping("/orders/book")
-    public ResponseEntity<?> bookTable(@RequestBody OrderRequest request) {
+    public ResponseEntity<?> bookTable(@RequestBody OrderRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            Principal principal) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            try {
+                Order order = orderService.createOrder(request);
+                OrderResponseDto orderDto = DtoMapper.toOrderResponseDto(order);
+                return ResponseEntity.ok(orderDto);
+            } catch (Exception e) {
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            }
+        }
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Idempotency-Key không hợp lệ"));
+        }
+
+        String scope = principal != null ? principal.getName() : "anonymous";
+        IdempotencyService.Claim claim;
         try {
-            Order order = orderService.createOrder(request);
-            OrderResponseDto orderDto = DtoMapper.toOrderResponseDto(order);
-            return ResponseEntity.ok(orderDto);
+            claim = idempotencyService.claim(scope, idempotencyKey, objectMapper.writeValueAsBytes(request));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
+
+        switch (claim.outcome()) {
+            case REPLAY:
+                return ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Idempotent-Replayed", "true")
+                        .body(claim.responseBody());
+            case MISMATCH:
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                        .body(Map.of("error", "Idempotency-Key đã được dùng cho một yêu cầu khác"));
+            case IN_PROGRESS:
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", "Yêu cầu đặt bàn này đang được xử lý"));
+            default:
+                break;
+        }
+
+        Order order;
+        try {
+            order = orderService.createOrder(request);
+        } catch (Exception e) {
+            // chỉ lưu kết quả thành công, lần thử lại sẽ được xử lý như mới
+            idempotencyService.release(scope, idempotencyKey, claim);
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        // đơn đã được tạo: luôn trả 200, không nhả key dù lưu kết quả thất bại
+        OrderResponseDto orderDto = DtoMapper.toOrderResponseDto(order);
+        try {
+            idempotencyService.complete(scope, idempotencyKey, claim, objectMapper.writeValueAsString(orderDto));
+        } catch (Exception e) {
+            log.error("Cannot store idempotent response for key {} (order {})", idempotencyKey, order.getId(), e);
+        }
+        return ResponseEntity.ok(orderDto);
     }
 
     @GetMapping("/admin/orders")
-    public ResponseEntity<List<OrderResponseDto>> getAllOrders() {
-        List<Order> orders = orderService.getAllOrders();
-        List<OrderResponseDto> orderDtos = orders.stream()
-                .map(DtoMapper::toOrderResponseDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(orderDtos);
+    public ResponseEntity<?> getAllOrders(@RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        try {
+            OrderCursor after = cursor != null ? OrderCursor.decode(cursor) : null;
+            int pageSize = orderService.resolvePageSize(size);
+
+            // lấy dư một phần tử để biết còn trang sau hay không
+            List<Order> orders = orderService.getOrderPage(after, pageSize + 1);
+            boolean hasMore = orders.size() > pageSize;
+            List<Order> page = hasMore ? orders.subList(0, pageSize) : orders;
+
+            OrderPageResponse response = OrderPageResponse.builder()
+                    .items(page.stream()
+                            .map(DtoMapper::toOrderResponseDto)
+                            .collect(Collectors.toList()))
+                    .nextCursor(hasMore ? OrderCursor.of(page.get(page.size() - 1)).encode() : null)
+                    .hasMore(hasMore)
+                    .build();
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping(value = "/admin/orders/stream", produces = NDJSON)
+    public ResponseEntity<?> streamOrders(@RequestParam(value = "cursor", required = false) String cursor) {
+        OrderCursor after;
+        try {
+            after = cursor != null ? OrderCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        StreamingResponseBody body = out -> {
+            try (Stream<Order> orders = orderService.streamOrders(after)) {
+                orders.forEach(order -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(DtoMapper.toOrderResponseDto(order)));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    @GetMapping("/admin/orders/export")
+    public ResponseEntity<?> exportOrders(@RequestParam("from") String from, @RequestParam("to") String to,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "format", defaultValue = "csv") String format) {
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            fromDate = LocalDate.parse(from);
+            toDate = LocalDate.parse(to);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Ngày không hợp lệ"));
+        }
+        if (!"csv".equals(format) && !"ndjson".equals(format)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Định dạng không hỗ trợ: " + format));
+        }
+
+        boolean ndjson = "ndjson".equals(format);
+        StreamingResponseBody body = out -> orderExportService.export(fromDate, toDate, status, ndjson, out);
+        String filename = "orders-" + fromDate + "-" + toDate + (ndjson ? ".ndjson" : ".csv");
+        MediaType contentType = MediaType.parseMediaType(ndjson ? NDJSON : "text/csv;charset=UTF-8");
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
     }
 
     @GetMapping("/admin/orders/active")
@@ -0,0 +1,68 @@
+package com.example.backend.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.backend.dto.MenuItemResponseDto;
+import com.example.backend.dto.OrderResponseDto;
+import com.example.backend.dto.TableResponseDto;
+import com.example.backend.repository.reactive.ReactiveMenuItemRepository;
+import com.example.backend.repository.reactive.ReactiveOrderRepository;
+import com.example.backend.repository.reactive.ReactiveTableRepository;
+import com.example.backend.service.OrderService;
+import com.example.backend.util.DtoMapper;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking variants of the read-heavy endpoints, served from reactive
+ * MongoDB repositories. Results are written as NDJSON (or SSE) one element at
+ * a time, and the next element is only requested from the cursor after the
+ * previous one was written, so a slow client holds neither a request thread
+ * nor the whole result in memory.
+ */
+@RestController
+@RequestMapping(value = "/api/reactive", produces = { ReactiveQueryController.NDJSON,
+        MediaType.TEXT_EVENT_STREAM_VALUE })
+public class ReactiveQueryController {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private ReactiveTableRepository reactiveTableRepository;
+
+    @Autowired
+    private ReactiveMenuItemRepository reactiveMenuItemRepository;
+
+    @Autowired
+    private ReactiveOrderRepository reactiveOrderRepository;
+
+    @GetMapping("/tables")
+    public Flux<TableResponseDto> getAllTables() {
+        return reactiveTableRepository.findAll().map(DtoMapper::toTableResponseDto);
+    }
+
+    @GetMapping("/tables/available")
+    public Flux<TableResponseDto> getAvailableTables() {
+        return reactiveTableRepository.findByStatus("AVAILABLE").map(DtoMapper::toTableResponseDto);
+    }
+
+    @GetMapping("/menu")
+    public Flux<MenuItemResponseDto> getAllMenuItems() {
+        return reactiveMenuItemRepository.findAll().map(DtoMapper::toMenuItemResponseDto);
+    }
+
+    @GetMapping("/menu/available")
+    public Flux<MenuItemResponseDto> getAvailableMenuItems() {
+        return reactiveMenuItemRepository.findByAvailableTrue().map(DtoMapper::toMenuItemResponseDto);
+    }
+
+    @GetMapping("/admin/orders/active")
+    public Flux<OrderResponseDto> getActiveOrders() {
+        return reactiveOrderRepository.streamByStatusIn(OrderService.ACTIVE_STATUSES)
+                .map(DtoMapper::toOrderResponseDto);
+    }
+}
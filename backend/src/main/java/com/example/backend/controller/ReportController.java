@@ -1,5 +1,7 @@
 package com.example.backend.controller;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -7,7 +9,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.backend.dto.AverageTicketDto;
+import com.example.backend.dto.CategoryRevenueDto;
+import com.example.backend.dto.HourlyRevenueDto;
 import com.example.backend.dto.ReportResponse;
+import com.example.backend.dto.TopItemDto;
 import com.example.backend.service.ReportService;
 
 @RestController
@@ -26,4 +32,29 @@ public class ReportController {
     public ResponseEntity<ReportResponse> getReportByDate(@RequestParam("date") String date) {
         return ResponseEntity.ok(reportService.getReportByDate(date));
     }
+
+    @GetMapping("/revenue-by-hour")
+    public ResponseEntity<List<HourlyRevenueDto>> getRevenueByHour(
+            @RequestParam(value = "date", required = false) String date) {
+        return ResponseEntity.ok(reportService.getRevenueByHour(date));
+    }
+
+    @GetMapping("/revenue-by-category")
+    public ResponseEntity<List<CategoryRevenueDto>> getRevenueByCategory(
+            @RequestParam(value = "date", required = false) String date) {
+        return ResponseEntity.ok(reportService.getRevenueByCategory(date));
+    }
+
+    @GetMapping("/top-items")
+    public ResponseEntity<List<TopItemDto>> getTopItems(
+            @RequestParam(value = "date", required = false) String date,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(reportService.getTopItems(date, Math.max(1, Math.min(limit, 100))));
+    }
+
+    @GetMapping("/average-ticket")
+    public ResponseEntity<AverageTicketDto> getAverageTicket(
+            @RequestParam(value = "date", required = false) String date) {
+        return ResponseEntity.ok(reportService.getAverageTicket(date));
+    }
 }
\ No newline at end of file
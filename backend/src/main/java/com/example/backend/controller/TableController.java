@@ -5,6 +5,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,9 +15,11 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.backend.dto.TableResponseDto;
 import com.example.backend.model.Table;
+import com.example.backend.service.ResourceVersions;
 import com.example.backend.service.TableService;
 import com.example.backend.util.DtoMapper;
 
@@ -27,22 +30,40 @@ public class TableController {
     @Autowired
     private TableService tableService;
 
+    @Autowired
+    private ResourceVersions resourceVersions;
+
     @GetMapping("/tables")
-    public ResponseEntity<List<TableResponseDto>> getAllTables() {
+    public ResponseEntity<List<TableResponseDto>> getAllTables(WebRequest webRequest) {
+        // đọc version trước khi truy vấn, xem ResourceVersions
+        String etag = resourceVersions.etag("tables", resourceVersions.tablesVersion());
+        if (resourceVersions.tablesSettled() && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<Table> tables = tableService.getAllTables();
         List<TableResponseDto> tableDtos = tables.stream()
                 .map(DtoMapper::toTableResponseDto)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(tableDtos);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(tableDtos);
     }
 
     @GetMapping("/tables/available")
-    public ResponseEntity<List<TableResponseDto>> getAvailableTables() {
+    public ResponseEntity<List<TableResponseDto>> getAvailableTables(WebRequest webRequest) {
+        String etag = resourceVersions.etag("tables-available", resourceVersions.tablesVersion());
+        if (resourceVersions.tablesSettled() && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<Table> tables = tableService.getAvailableTables();
         List<TableResponseDto> tableDtos = tables.stream()
                 .map(DtoMapper::toTableResponseDto)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(tableDtos);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(tableDtos);
     }
 
     @PostMapping("/admin/tables")
@@ -53,19 +74,27 @@ public class TableController {
     }
 
     @PutMapping("/admin/tables/{id}")
-    public ResponseEntity<TableResponseDto> updateTable(@PathVariable String id, @RequestBody Table table) {
-        Table updatedTable = tableService.updateTable(id, table);
-        TableResponseDto tableDto = DtoMapper.toTableResponseDto(updatedTable);
-        return ResponseEntity.ok(tableDto);
+    public ResponseEntity<?> updateTable(@PathVariable String id, @RequestBody Table table) {
+        try {
+            Table updatedTable = tableService.updateTable(id, table);
+            TableResponseDto tableDto = DtoMapper.toTableResponseDto(updatedTable);
+            return ResponseEntity.ok(tableDto);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @PutMapping("/admin/tables/{id}/status")
-    public ResponseEntity<TableResponseDto> updateTableStatus(@PathVariable String id,
+    public ResponseEntity<?> updateTableStatus(@PathVariable String id,
             @RequestBody Map<String, String> statusMap) {
-        String status = statusMap.get("status");
-        Table updatedTable = tableService.updateTableStatus(id, status);
-        TableResponseDto tableDto = DtoMapper.toTableResponseDto(updatedTable);
-        return ResponseEntity.ok(tableDto);
+        try {
+            String status = statusMap.get("status");
+            Table updatedTable = tableService.updateTableStatus(id, status);
+            TableResponseDto tableDto = DtoMapper.toTableResponseDto(updatedTable);
+            return ResponseEntity.ok(tableDto);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @DeleteMapping("/admin/tables/{id}")
@@ -75,9 +104,13 @@ public class TableController {
     }
 
     @PostMapping("/admin/tables/{id}/clear")
-    public ResponseEntity<TableResponseDto> clearTable(@PathVariable String id) {
-        Table updatedTable = tableService.updateTableStatus(id, "AVAILABLE");
-        TableResponseDto tableDto = DtoMapper.toTableResponseDto(updatedTable);
-        return ResponseEntity.ok(tableDto);
+    public ResponseEntity<?> clearTable(@PathVariable String id) {
+        try {
+            Table updatedTable = tableService.updateTableStatus(id, "AVAILABLE");
+            TableResponseDto tableDto = DtoMapper.toTableResponseDto(updatedTable);
+            return ResponseEntity.ok(tableDto);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 }
\ No newline at end of file
@@ -1,18 +1,33 @@
 package com.example.backend.controller;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 
+import com.example.backend.dto.OrderUpdateEvent;
+import com.example.backend.dto.TableResponseDto;
+import com.example.backend.dto.TableSnapshotDto;
 import com.example.backend.dto.TableStatusUpdateEvent;
+import com.example.backend.service.BroadcastCoalescer;
+import com.example.backend.service.LiveStateStore;
 
 @Controller
 public class WebSocketController {
 
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private BroadcastCoalescer broadcastCoalescer;
+
+    @Autowired
+    private LiveStateStore liveStateStore;
+
+    @Value("${app.websocket.fanout:local}")
+    private String fanout;
 
     @MessageMapping("/table.subscribe")
     @SendTo("/topic/tables")
@@ -20,11 +35,36 @@ public class WebSocketController {
         return event;
     }
 
+    /**
+     * Initial state for a client that follows a single table: subscribing to
+     * {@code /app/tables/{id}} answers once with the table and its open orders
+     * from memory; live changes then arrive on {@code /topic/tables/{id}} and
+     * {@code /topic/orders/table/{id}}.
+     */
+    @SubscribeMapping("/tables/{tableId}")
+    public TableSnapshotDto subscribeTable(@DestinationVariable String tableId) {
+        return liveStateStore.snapshot(tableId);
+    }
+
+    @SubscribeMapping("/tables")
+    public List<TableResponseDto> subscribeTables() {
+        return liveStateStore.tables();
+    }
+
+    // Ở chế độ change-stream, ChangeStreamRelay phát lại mọi thay đổi từ DB
     public void broadcastTableUpdate(TableStatusUpdateEvent event) {
-        messagingTemplate.convertAndSend("/topic/tables", event);
+        if (isLocalFanout()) {
+            broadcastCoalescer.submitTable(event);
+        }
+    }
+
+    public void broadcastOrderUpdate(OrderUpdateEvent orderEvent) {
+        if (isLocalFanout()) {
+            broadcastCoalescer.submitOrder(orderEvent);
+        }
     }
 
-    public void broadcastOrderUpdate(Object orderEvent) {
-        messagingTemplate.convertAndSend("/topic/orders", orderEvent);
+    private boolean isLocalFanout() {
+        return !"change-stream".equals(fanout);
     }
 }
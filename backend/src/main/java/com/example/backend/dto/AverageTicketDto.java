@@ -0,0 +1,10 @@
+package com.example.backend.dto;
+
+import lombok.Data;
+
+@Data
+public class AverageTicketDto {
+    private Long orders;
+    private Double revenue;
+    private Double averageTicket;
+}
@@ -0,0 +1,10 @@
+package com.example.backend.dto;
+
+import lombok.Data;
+
+@Data
+public class CategoryRevenueDto {
+    private String category;
+    private Double revenue;
+    private Long quantity;
+}
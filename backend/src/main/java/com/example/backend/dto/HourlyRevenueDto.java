@@ -0,0 +1,10 @@
+package com.example.backend.dto;
+
+import lombok.Data;
+
+@Data
+public class HourlyRevenueDto {
+    private Integer hour; // 0-23
+    private Double revenue;
+    private Long orders;
+}
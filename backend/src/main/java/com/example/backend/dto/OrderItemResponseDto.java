@@ -1,12 +1,15 @@
 package com.example.backend.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class OrderItemResponseDto {
-    private String id;
     private MenuItemResponseDto menuItem;
     private Integer quantity;
     private Double price;
@@ -0,0 +1,14 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class OrderPageResponse {
+    private List<OrderResponseDto> items;
+    private String nextCursor; // null khi đã hết dữ liệu
+    private boolean hasMore;
+}
@@ -0,0 +1,19 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class QueryPlanDto {
+    private String query;          // Repository.method
+    private String collection;
+    private String filter;
+    private String sort;
+    private List<String> stages;   // các stage của winning plan, từ ngoài vào trong
+    private List<String> indexes;
+    private boolean collectionScan;
+    private boolean inMemorySort;
+}
@@ -0,0 +1,13 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class TableSnapshotDto {
+    private TableResponseDto table;
+    private List<OrderResponseDto> activeOrders;
+}
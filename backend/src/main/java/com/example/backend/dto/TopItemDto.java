@@ -0,0 +1,11 @@
+package com.example.backend.dto;
+
+import lombok.Data;
+
+@Data
+public class TopItemDto {
+    private String menuItemId;
+    private String name;
+    private Long quantity;
+    private Double revenue;
+}
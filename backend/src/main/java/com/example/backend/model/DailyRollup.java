@@ -0,0 +1,36 @@
+package com.example.backend.model;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+
+/**
+ * Report counters for one day, keyed by the ISO date (yyyy-MM-dd) of the
+ * orders' orderTime. ReportService builds the counters from the orders
+ * written before {@code since}; events at or after {@code since} are added
+ * live with atomic $inc/$addToSet. Only a rollup marked {@code complete} is
+ * served as a report.
+ */
+@Data
+@Document(collection = "daily_rollups")
+public class DailyRollup {
+    @Id
+    private String id;
+
+    private Long totalOrders = 0L;
+
+    private Long completedOrders = 0L;
+
+    private Double totalRevenue = 0.0;
+
+    private Set<String> customerIds = new HashSet<>();
+
+    private LocalDateTime since;  // mốc backfill: trước đó tính từ orders, từ đó trở đi cộng trực tiếp
+
+    private Boolean complete = false;
+}
@@ -0,0 +1,31 @@
+package com.example.backend.model;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+
+/**
+ * Stored outcome of a request sent with an Idempotency-Key, keyed by
+ * "username:key". A record is IN_PROGRESS while the first request runs and
+ * COMPLETED with the response body afterwards; MongoDB removes it at
+ * expiresAt through the TTL index.
+ */
+@Data
+@Document(collection = "idempotency_keys")
+public class IdempotencyRecord {
+    @Id
+    private String id;
+
+    private String requestHash;   // SHA-256 của body, để phát hiện key bị dùng lại cho yêu cầu khác
+
+    private String status;        // IN_PROGRESS, COMPLETED
+
+    private String responseBody;
+
+    @Indexed(name = "expiresAt_ttl", expireAfter = "0s")
+    private Date expiresAt;
+}
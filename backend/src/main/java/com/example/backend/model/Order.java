@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -12,6 +13,9 @@ import lombok.Data;
 
 @Data
 @Document(collection = "orders")
+@CompoundIndex(name = "orderTime_id", def = "{'orderTime': -1, '_id': -1}")
+@CompoundIndex(name = "status_orderTime", def = "{'status': 1, 'orderTime': 1}")
+@CompoundIndex(name = "table_orderTime", def = "{'table.$id': 1, 'orderTime': -1}")
 public class Order {
     @Id
     private String id;
@@ -22,7 +26,6 @@ public class Order {
     @DBRef
     private User user;
 
-    @DBRef
     private List<OrderItem> items = new ArrayList<>();
 
     private Double totalAmount = 0.0;
@@ -31,5 +34,5 @@ public class Order {
 
     private LocalDateTime paidTime;
 
-    private String status = "PENDING"; // PENDING, COMPLETED
+    private String status = "PENDING"; // PENDING, CONFIRMED, OCCUPIED, PAID
 }
@@ -1,22 +1,19 @@
 package com.example.backend.model;
 
-import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.mapping.DBRef;
-import org.springframework.data.mongodb.core.mapping.Document;
-
 import lombok.Data;
 
+/**
+ * Line item embedded in an {@link Order}. Name, category and price are copied
+ * from the menu at booking time so an order can be read without resolving the
+ * menu item it was taken from.
+ */
 @Data
-@Document(collection = "order_items")
 public class OrderItem {
-    @Id
-    private String id;
+    private String menuItemId;
 
-    @DBRef
-    private Order order;
+    private String name;
 
-    @DBRef
-    private MenuItem menuItem;
+    private String category;
 
     private Integer quantity;
 
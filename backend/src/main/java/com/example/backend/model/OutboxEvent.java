@@ -0,0 +1,46 @@
+package com.example.backend.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.example.backend.dto.OrderUpdateEvent;
+import com.example.backend.dto.TableStatusUpdateEvent;
+
+import lombok.Data;
+
+/**
+ * A domain event waiting to be broadcast, written in the same unit of work as
+ * the table/order change it describes. Exactly one of tableEvent and
+ * orderEvent is set. Ids are ObjectIds generated by the writing instance, so
+ * sorting by _id gives the order in which that instance produced the events.
+ * A dispatcher takes an event by setting claimedBy and leaseUntil; once the
+ * lease runs out any dispatcher may take it again.
+ */
+@Data
+@Document(collection = "outbox")
+@CompoundIndex(name = "instance_id", def = "{'instanceId': 1, '_id': 1}")
+@CompoundIndex(name = "createdAt_id", def = "{'createdAt': 1, '_id': 1}")
+public class OutboxEvent {
+    @Id
+    private String id;
+
+    private String instanceId;
+
+    private String aggregateId;   // tableId, dùng để giữ thứ tự theo bàn
+
+    private TableStatusUpdateEvent tableEvent;
+
+    private OrderUpdateEvent orderEvent;
+
+    private Instant createdAt;
+
+    @Indexed(name = "claimedBy", sparse = true)
+    private String claimedBy;     // lượt claim của dispatcher đang giữ event
+
+    @Indexed(name = "leaseUntil")
+    private Instant leaseUntil;
+}
@@ -0,0 +1,37 @@
+package com.example.backend.model;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+
+/**
+ * An issued refresh token. Only the SHA-256 of the token is stored, as the
+ * id. Every token rotated from the same login shares a familyId and the
+ * login's familyIssuedAt and expiresAt, so rotation never extends the
+ * session. A token is deleted when it is used (rotation) or revoked;
+ * MongoDB removes unused ones at expiresAt through the TTL index.
+ */
+@Data
+@Document(collection = "refresh_tokens")
+public class RefreshToken {
+    @Id
+    private String id;            // SHA-256 của token, token gốc chỉ có ở client
+
+    @Indexed(name = "userId")
+    private String userId;
+
+    private String username;
+
+    private String role;          // role lúc cấp, đổi role thì token bị thu hồi
+
+    private String familyId;      // chung cho mọi token xoay vòng từ một lần đăng nhập
+
+    private Date familyIssuedAt;  // thời điểm đăng nhập
+
+    @Indexed(name = "expiresAt_ttl", expireAfter = "0s")
+    private Date expiresAt;       // familyIssuedAt + refresh-expiration, không đổi khi xoay vòng
+}
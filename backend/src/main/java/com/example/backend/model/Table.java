@@ -1,6 +1,7 @@
 package com.example.backend.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.Data;
@@ -11,8 +12,10 @@ public class Table {
     @Id
     private String id;
 
+    @Indexed(name = "tableNumber_unique", unique = true)
     private Integer tableNumber;
 
+    @Indexed(name = "status")
     private String status = "AVAILABLE"; // AVAILABLE, OCCUPIED, PAID
 
     private Integer seats;
@@ -1,6 +1,7 @@
 package com.example.backend.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -13,6 +14,7 @@ public class User {
     @Id
     private String id;
 
+    @Indexed(name = "username_unique", unique = true)
     private String username;
 
     @JsonIgnore
@@ -0,0 +1,10 @@
+package com.example.backend.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.backend.model.DailyRollup;
+
+@Repository
+public interface DailyRollupRepository extends MongoRepository<DailyRollup, String> {
+}
@@ -1,7 +0,0 @@
-package com.example.backend.repository;
-
-import com.example.backend.model.OrderItem;
-import org.springframework.data.mongodb.repository.MongoRepository;
-
-public interface OrderItemRepository extends MongoRepository<OrderItem, String> {
-}
\ No newline at end of file
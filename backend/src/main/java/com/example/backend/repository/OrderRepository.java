@@ -1,6 +1,7 @@
 package com.example.backend.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
@@ -9,10 +10,12 @@ import org.springframework.stereotype.Repository;
 import com.example.backend.model.Order;
 
 @Repository
-public interface OrderRepository extends MongoRepository<Order, String> {
+public interface OrderRepository extends MongoRepository<Order, String>, OrderRepositoryCustom {
 
     List<Order> findByStatus(String status);
 
+    List<Order> findByStatusInOrderByOrderTimeAsc(Collection<String> statuses);
+
     List<Order> findByTable_Id(String tableId);
 
     List<Order> findByOrderTimeBetween(LocalDateTime start, LocalDateTime end);
@@ -0,0 +1,42 @@
+package com.example.backend.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.example.backend.model.Order;
+import com.example.backend.util.OrderCursor;
+
+public interface OrderRepositoryCustom {
+
+    /**
+     * Applies {@code update} to the order only if its status is currently one
+     * of {@code fromStatuses}, in a single findAndModify.
+     *
+     * @return the updated order, or empty if the order does not exist or is in
+     *         another status
+     */
+    Optional<Order> transitionStatus(String orderId, Collection<String> fromStatuses, Update update);
+
+    /**
+     * Same as {@link #transitionStatus} but targets the most recent order of
+     * the table whose status is one of {@code fromStatuses}.
+     */
+    Optional<Order> transitionLatestForTable(String tableId, Collection<String> fromStatuses, Update update);
+
+    /**
+     * Returns up to {@code limit} orders sorted by (orderTime, id) descending,
+     * starting strictly after {@code after}, or from the newest order when
+     * {@code after} is null.
+     */
+    List<Order> findPage(OrderCursor after, int limit);
+
+    /**
+     * Streams orders in the same order as {@link #findPage} from a database
+     * cursor. The caller must close the stream.
+     */
+    Stream<Order> streamFrom(OrderCursor after);
+}
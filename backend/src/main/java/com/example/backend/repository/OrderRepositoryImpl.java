@@ -0,0 +1,59 @@
+package com.example.backend.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.example.backend.model.Order;
+import com.example.backend.util.OrderCursor;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class OrderRepositoryImpl implements OrderRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<Order> transitionStatus(String orderId, Collection<String> fromStatuses, Update update) {
+        Query query = Query.query(Criteria.where("id").is(orderId).and("status").in(fromStatuses));
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Order.class));
+    }
+
+    @Override
+    public Optional<Order> transitionLatestForTable(String tableId, Collection<String> fromStatuses, Update update) {
+        Query query = Query.query(Criteria.where("table.id").is(tableId).and("status").in(fromStatuses))
+                .with(Sort.by(Sort.Direction.DESC, "orderTime"));
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Order.class));
+    }
+
+    @Override
+    public List<Order> findPage(OrderCursor after, int limit) {
+        return mongoTemplate.find(keysetQuery(after).limit(limit), Order.class);
+    }
+
+    @Override
+    public Stream<Order> streamFrom(OrderCursor after) {
+        return mongoTemplate.stream(keysetQuery(after), Order.class);
+    }
+
+    private Query keysetQuery(OrderCursor after) {
+        Query query = new Query();
+        if (after != null) {
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where("orderTime").lt(after.orderTime()),
+                    Criteria.where("orderTime").is(after.orderTime()).and("id").lt(after.id())));
+        }
+        return query.with(Sort.by(Sort.Direction.DESC, "orderTime", "id"));
+    }
+}
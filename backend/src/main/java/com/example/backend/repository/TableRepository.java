@@ -5,7 +5,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import java.util.List;
 import java.util.Optional;
 
-public interface TableRepository extends  MongoRepository<Table, String> {
+public interface TableRepository extends  MongoRepository<Table, String>, TableRepositoryCustom {
     List<Table> findByStatus(String status);
     Optional<Table> findByTableNumber(Integer tableNumber);
-}
\ No newline at end of file
+}
@@ -0,0 +1,29 @@
+package com.example.backend.repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import com.example.backend.model.Table;
+
+public interface TableRepositoryCustom {
+
+    /**
+     * Sets the table status to {@code toStatus} only if it is currently one of
+     * {@code fromStatuses}, in a single findAndModify.
+     *
+     * @return the updated table, or empty if the table does not exist or is in
+     *         another status
+     */
+    Optional<Table> transitionStatus(String tableId, Collection<String> fromStatuses, String toStatus);
+
+    /**
+     * Sets the table number and seats and, when {@code toStatus} is not null,
+     * moves the status the same way {@link #transitionStatus} does, all in a
+     * single findAndModify.
+     *
+     * @return the updated table, or empty if the table does not exist or the
+     *         status transition is not allowed
+     */
+    Optional<Table> updateDetails(String tableId, Integer tableNumber, Integer seats,
+            Collection<String> fromStatuses, String toStatus);
+}
@@ -0,0 +1,41 @@
+package com.example.backend.repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.example.backend.model.Table;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class TableRepositoryImpl implements TableRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<Table> transitionStatus(String tableId, Collection<String> fromStatuses, String toStatus) {
+        Query query = Query.query(Criteria.where("id").is(tableId).and("status").in(fromStatuses));
+        Update update = Update.update("status", toStatus);
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Table.class));
+    }
+
+    @Override
+    public Optional<Table> updateDetails(String tableId, Integer tableNumber, Integer seats,
+            Collection<String> fromStatuses, String toStatus) {
+        Criteria criteria = Criteria.where("id").is(tableId);
+        Update update = new Update().set("tableNumber", tableNumber).set("seats", seats);
+        if (toStatus != null) {
+            criteria.and("status").in(fromStatuses);
+            update.set("status", toStatus);
+        }
+        return Optional.ofNullable(mongoTemplate.findAndModify(Query.query(criteria), update,
+                FindAndModifyOptions.options().returnNew(true), Table.class));
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.backend.repository.reactive;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.example.backend.model.MenuItem;
+
+import reactor.core.publisher.Flux;
+
+public interface ReactiveMenuItemRepository extends ReactiveMongoRepository<MenuItem, String> {
+    Flux<MenuItem> findByAvailableTrue();
+}
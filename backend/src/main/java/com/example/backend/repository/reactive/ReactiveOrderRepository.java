@@ -0,0 +1,14 @@
+package com.example.backend.repository.reactive;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.example.backend.model.Order;
+
+/**
+ * Reactive access to orders. The reactive mapping layer cannot resolve
+ * {@code @DBRef}, so read orders through {@link ReactiveOrderRepositoryCustom},
+ * which fills table and user itself; derived finders would fail on them.
+ */
+public interface ReactiveOrderRepository extends ReactiveMongoRepository<Order, String>,
+        ReactiveOrderRepositoryCustom {
+}
@@ -0,0 +1,16 @@
+package com.example.backend.repository.reactive;
+
+import java.util.Collection;
+
+import com.example.backend.model.Order;
+
+import reactor.core.publisher.Flux;
+
+public interface ReactiveOrderRepositoryCustom {
+
+    /**
+     * Orders in one of the given statuses, oldest first, with table and user
+     * populated. Emitted as they arrive from the cursor.
+     */
+    Flux<Order> streamByStatusIn(Collection<String> statuses);
+}
@@ -0,0 +1,67 @@
+package com.example.backend.repository.reactive;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.example.backend.model.Order;
+import com.example.backend.model.Table;
+import com.example.backend.model.User;
+import com.mongodb.DBRef;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class ReactiveOrderRepositoryImpl implements ReactiveOrderRepositoryCustom {
+
+    private static final int USER_LOOKUP_CONCURRENCY = 16;
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public ReactiveOrderRepositoryImpl(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @Override
+    public Flux<Order> streamByStatusIn(Collection<String> statuses) {
+        Query query = Query.query(Criteria.where("status").in(statuses)).with(Sort.by("orderTime"));
+
+        // danh sách bàn nhỏ, đọc một lần cho cả luồng thay vì mỗi đơn một lần
+        return reactiveMongoTemplate.findAll(Table.class)
+                .collectMap(Table::getId)
+                .flatMapMany(tables -> reactiveMongoTemplate.find(query, Document.class, "orders")
+                        .flatMapSequential(document -> toOrder(document, tables), USER_LOOKUP_CONCURRENCY));
+    }
+
+    private Mono<Order> toOrder(Document document, Map<String, Table> tables) {
+        String tableId = refId(document.remove("table"));
+        String userId = refId(document.remove("user"));
+
+        Order order = reactiveMongoTemplate.getConverter().read(Order.class, document);
+        order.setTable(tableId != null ? tables.get(tableId) : null);
+        if (userId == null) {
+            return Mono.just(order);
+        }
+        return reactiveMongoTemplate.findById(userId, User.class)
+                .map(user -> {
+                    order.setUser(user);
+                    return order;
+                })
+                .defaultIfEmpty(order);
+    }
+
+    private static String refId(Object ref) {
+        if (ref instanceof DBRef dbRef) {
+            return dbRef.getId().toString();
+        }
+        if (ref instanceof Document reference && reference.get("$id") != null) {
+            return reference.get("$id").toString();
+        }
+        return null;
+    }
+}
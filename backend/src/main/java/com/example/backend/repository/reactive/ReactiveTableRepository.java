@@ -0,0 +1,11 @@
+package com.example.backend.repository.reactive;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.example.backend.model.Table;
+
+import reactor.core.publisher.Flux;
+
+public interface ReactiveTableRepository extends ReactiveMongoRepository<Table, String> {
+    Flux<Table> findByStatus(String status);
+}
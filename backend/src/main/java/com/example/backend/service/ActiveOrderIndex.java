@@ -0,0 +1,92 @@
+package com.example.backend.service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.backend.model.Order;
+import com.example.backend.repository.OrderRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Optional in-memory view of the orders that are not yet paid, kept current by
+ * the transitions in {@link OrderService}. Only enable it when a single
+ * instance writes orders; otherwise the indexed status query is used.
+ *
+ * {@link #track} runs after the conditional write, so calls for the same
+ * order can arrive out of order. Orders only move forward through
+ * PENDING → CONFIRMED → OCCUPIED → PAID, so an update older than the tracked
+ * one is ignored, and ids of recently closed orders are remembered so a late
+ * update cannot bring a paid order back.
+ */
+@Slf4j
+@Component
+public class ActiveOrderIndex {
+
+    private final OrderRepository orderRepository;
+    private final boolean enabled;
+    private static final List<String> PROGRESSION = List.of("PENDING", "CONFIRMED", "OCCUPIED", "PAID");
+
+    private final Map<String, Order> orders = new ConcurrentHashMap<>();
+    private final Cache<String, Boolean> closed = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    public ActiveOrderIndex(OrderRepository orderRepository,
+            @Value("${app.orders.active-index.enabled:false}") boolean enabled) {
+        this.orderRepository = orderRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        orderRepository.findByStatusInOrderByOrderTimeAsc(OrderService.ACTIVE_STATUSES)
+                .forEach(this::track);
+        log.info("Active order index loaded with {} orders", orders.size());
+    }
+
+    public void track(Order order) {
+        if (!enabled) {
+            return;
+        }
+        // compute khóa theo id: các lần track cùng một đơn chạy lần lượt
+        orders.compute(order.getId(), (id, tracked) -> {
+            if (tracked != null && rank(tracked) > rank(order)) {
+                return tracked;
+            }
+            if (OrderService.ACTIVE_STATUSES.contains(order.getStatus())) {
+                return closed.getIfPresent(id) != null ? null : order;
+            }
+            closed.put(id, Boolean.TRUE);
+            return null;
+        });
+    }
+
+    private static int rank(Order order) {
+        return PROGRESSION.indexOf(order.getStatus());
+    }
+
+    public List<Order> list() {
+        return orders.values().stream()
+                .sorted(Comparator.comparing(Order::getOrderTime))
+                .toList();
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.backend.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.backend.dto.OrderUpdateEvent;
+import com.example.backend.dto.TableStatusUpdateEvent;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Broadcast stage between the services and the STOMP broker. Events are
+ * collected per table and per order and flushed once per tick, so a burst of
+ * transitions on the same table or order becomes a single frame.
+ * Table frames are small and always sent whole; order frames after the first
+ * carry only the fields that changed since the last frame for that order,
+ * plus the identifying fields, and are marked with {@code "delta": true}.
+ * Every frame goes to the global topic and to the per-table topic
+ * ({@code /topic/tables/{id}}, {@code /topic/orders/table/{id}}).
+ * websocket.broadcast.latency measures the time from the first submitted
+ * event of a key to its frame being sent; websocket.broadcast.fanout counts
+ * the frames one flush sends. The last frame per order is kept in a bounded
+ * cache (app.websocket.order-delta-cache-size, -ttl) and dropped when the
+ * order is paid or its table is cleared or deleted; an order without an
+ * entry simply gets a full frame next time.
+ */
+@Component
+public class BroadcastCoalescer {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+    private static final Set<String> ORDER_KEYS = Set.of("eventType", "orderId", "tableId", "userId");
+    private static final Set<String> NESTED_KEYS = Set.of("id");
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final LiveStateStore liveStateStore;
+
+    private final Map<String, TableStatusUpdateEvent> pendingTables = new ConcurrentHashMap<>();
+    private final Map<String, OrderUpdateEvent> pendingOrders = new ConcurrentHashMap<>();
+    private final Cache<String, Map<String, Object>> lastSentOrders;
+    private final Map<String, Long> pendingSince = new ConcurrentHashMap<>();
+
+    private final Counter tableEventsIn;
+    private final Counter orderEventsIn;
+    private final Counter tableFramesOut;
+    private final Counter orderFramesOut;
+    private final Timer tableLatency;
+    private final Timer orderLatency;
+    private final Timer flushTimer;
+    private final DistributionSummary fanout;
+
+    public BroadcastCoalescer(SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper,
+            LiveStateStore liveStateStore, MeterRegistry meterRegistry,
+            @Value("${app.websocket.order-delta-cache-size:10000}") long orderDeltaCacheSize,
+            @Value("${app.websocket.order-delta-ttl:2h}") Duration orderDeltaTtl) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.liveStateStore = liveStateStore;
+        this.lastSentOrders = Caffeine.newBuilder()
+                .maximumSize(orderDeltaCacheSize)
+                .expireAfterAccess(orderDeltaTtl)
+                .build();
+        this.tableEventsIn = Counter.builder("websocket.events.in").tag("type", "table").register(meterRegistry);
+        this.orderEventsIn = Counter.builder("websocket.events.in").tag("type", "order").register(meterRegistry);
+        this.tableFramesOut = Counter.builder("websocket.frames.out").tag("type", "table").register(meterRegistry);
+        this.orderFramesOut = Counter.builder("websocket.frames.out").tag("type", "order").register(meterRegistry);
+        this.tableLatency = Timer.builder("websocket.broadcast.latency").tag("type", "table").register(meterRegistry);
+        this.orderLatency = Timer.builder("websocket.broadcast.latency").tag("type", "order").register(meterRegistry);
+        this.flushTimer = Timer.builder("websocket.flush").register(meterRegistry);
+        this.fanout = DistributionSummary.builder("websocket.broadcast.fanout").baseUnit("frames")
+                .register(meterRegistry);
+    }
+
+    public void submitTable(TableStatusUpdateEvent event) {
+        tableEventsIn.increment();
+        liveStateStore.applyTable(event);
+        pendingSince.putIfAbsent("table:" + event.getTableId(), System.nanoTime());
+        pendingTables.merge(event.getTableId(), event, (previous, latest) -> {
+            // bàn bị xóa thì không còn gì để cập nhật
+            return "DELETE".equals(previous.getEventType()) ? previous : latest;
+        });
+    }
+
+    public void submitOrder(OrderUpdateEvent event) {
+        orderEventsIn.increment();
+        liveStateStore.applyOrder(event);
+        pendingSince.putIfAbsent("order:" + event.getOrderId(), System.nanoTime());
+        pendingOrders.merge(event.getOrderId(), event, (previous, latest) -> {
+            // đơn vừa tạo trong cùng tick vẫn phải tới client như "created"
+            if ("created".equals(previous.getEventType())) {
+                latest.setEventType("created");
+            }
+            return latest;
+        });
+    }
+
+    // synchronized: với virtual threads, tick định kỳ và OutboxDispatcher có thể flush cùng lúc
+    @Scheduled(fixedDelayString = "${app.websocket.coalesce-window-ms:100}")
+    public synchronized void flush() {
+        if (pendingTables.isEmpty() && pendingOrders.isEmpty()) {
+            return;
+        }
+        long started = System.nanoTime();
+        int frames = 0;
+
+        for (String tableId : pendingTables.keySet()) {
+            TableStatusUpdateEvent event = pendingTables.remove(tableId);
+            if (event != null) {
+                messagingTemplate.convertAndSend("/topic/tables", event);
+                messagingTemplate.convertAndSend("/topic/tables/" + tableId, event);
+                tableFramesOut.increment(2);
+                frames += 2;
+                recordLatency(tableLatency, "table:" + tableId);
+                if ("DELETE".equals(event.getEventType()) || "AVAILABLE".equals(event.getStatus())) {
+                    // bàn trống hoặc đã xóa: đơn cũ của bàn không còn cập nhật nữa
+                    lastSentOrders.asMap().values().removeIf(frame -> tableId.equals(frame.get("tableId")));
+                }
+            }
+        }
+
+        for (String orderId : pendingOrders.keySet()) {
+            OrderUpdateEvent event = pendingOrders.remove(orderId);
+            if (event != null) {
+                Map<String, Object> frame = toOrderFrame(event);
+                messagingTemplate.convertAndSend("/topic/orders", frame);
+                frames++;
+                if (event.getTableId() != null) {
+                    messagingTemplate.convertAndSend("/topic/orders/table/" + event.getTableId(), frame);
+                    orderFramesOut.increment();
+                    frames++;
+                }
+                orderFramesOut.increment();
+                recordLatency(orderLatency, "order:" + orderId);
+            }
+        }
+
+        fanout.record(frames);
+        flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordLatency(Timer timer, String key) {
+        Long since = pendingSince.remove(key);
+        if (since != null) {
+            timer.record(System.nanoTime() - since, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Map<String, Object> toOrderFrame(OrderUpdateEvent event) {
+        Map<String, Object> current = objectMapper.convertValue(event, MAP_TYPE);
+        Map<String, Object> previous = lastSentOrders.getIfPresent(event.getOrderId());
+
+        if ("PAID".equals(event.getStatus())) {
+            lastSentOrders.invalidate(event.getOrderId());
+        } else {
+            lastSentOrders.put(event.getOrderId(), current);
+        }
+
+        if (previous == null || "created".equals(event.getEventType())) {
+            return current;
+        }
+        Map<String, Object> frame = diff(previous, current, ORDER_KEYS);
+        frame.put("delta", true);
+        return frame;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> diff(Map<String, Object> previous, Map<String, Object> current,
+            Set<String> keep) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : current.entrySet()) {
+            String key = entry.getKey();
+            Object value = entry.getValue();
+            Object old = previous.get(key);
+
+            if (keep.contains(key)) {
+                delta.put(key, value);
+            } else if (value instanceof Map && old instanceof Map && !value.equals(old)) {
+                delta.put(key, diff((Map<String, Object>) old, (Map<String, Object>) value, NESTED_KEYS));
+            } else if (!Objects.equals(value, old)) {
+                delta.put(key, value);
+            }
+        }
+        return delta;
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.backend.dto.OrderUpdateEvent;
+import com.example.backend.dto.TableStatusUpdateEvent;
+import com.example.backend.model.Order;
+import com.example.backend.model.Table;
+import com.example.backend.util.DtoMapper;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Multi-instance fan-out: watches the tables and orders collections through
+ * MongoDB change streams and hands every change to the local
+ * {@link BroadcastCoalescer}, so subscribers of any instance see writes made
+ * by all instances. Changes of menu_items rebuild the local
+ * {@link MenuCatalog}, so prices and the menu ETag follow writes made
+ * elsewhere. Resume tokens are stored per instance
+ * (app.websocket.change-stream.instance-id, defaulting to app.instance-id)
+ * and collection, so a restart or a dropped connection continues where the
+ * stream stopped.
+ * Requires a replica set; a single-node replica set is enough locally.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.websocket.fanout", havingValue = "change-stream")
+public class ChangeStreamRelay implements SmartLifecycle {
+
+    private static final String OFFSETS_COLLECTION = "change_stream_offsets";
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private final MongoTemplate mongoTemplate;
+    private final BroadcastCoalescer broadcastCoalescer;
+    private final ResourceVersions resourceVersions;
+    private final MenuCatalog menuCatalog;
+    private final String instanceId;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public ChangeStreamRelay(MongoTemplate mongoTemplate, BroadcastCoalescer broadcastCoalescer,
+            ResourceVersions resourceVersions, MenuCatalog menuCatalog,
+            @Value("${app.websocket.change-stream.instance-id:${app.instance-id:local}}") String instanceId) {
+        this.mongoTemplate = mongoTemplate;
+        this.broadcastCoalescer = broadcastCoalescer;
+        this.resourceVersions = resourceVersions;
+        this.menuCatalog = menuCatalog;
+        this.instanceId = instanceId;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        workers.add(Thread.ofPlatform().daemon().name("change-stream-tables")
+                .start(() -> watch("tables")));
+        workers.add(Thread.ofPlatform().daemon().name("change-stream-orders")
+                .start(() -> watch("orders")));
+        workers.add(Thread.ofPlatform().daemon().name("change-stream-menu")
+                .start(() -> watch("menu_items")));
+        if ("local".equals(instanceId)) {
+            // các replica cùng id "local" sẽ đọc/ghi đè resume token của nhau
+            log.warn("Change stream relay uses the default instance id; set APP_INSTANCE_ID per replica");
+        }
+        log.info("Change stream relay started for instance {}", instanceId);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        workers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void watch(String collectionName) {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(collectionName);
+        BsonDocument resumeToken = loadResumeToken(collectionName);
+
+        while (running) {
+            var changeStream = collection.watch()
+                    .fullDocument(FullDocument.UPDATE_LOOKUP)
+                    .maxAwaitTime(1, TimeUnit.SECONDS);
+            if (resumeToken != null) {
+                changeStream = changeStream.resumeAfter(resumeToken);
+            }
+
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = changeStream.cursor()) {
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change == null) {
+                        continue;
+                    }
+                    relay(collectionName, change);
+                    resumeToken = change.getResumeToken();
+                    saveResumeToken(collectionName, resumeToken);
+                }
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == CHANGE_STREAM_HISTORY_LOST) {
+                    log.warn("Resume token for {} is no longer in the oplog, restarting from now", collectionName);
+                    resumeToken = null;
+                } else {
+                    log.error("Change stream on {} failed, retrying", collectionName, e);
+                    pause();
+                }
+            } catch (MongoException | IllegalStateException e) {
+                if (running) {
+                    log.error("Change stream on {} failed, retrying", collectionName, e);
+                    pause();
+                }
+            }
+        }
+    }
+
+    private void relay(String collectionName, ChangeStreamDocument<Document> change) {
+        try {
+            if ("tables".equals(collectionName)) {
+                // mọi thay đổi (kể cả của instance này) chỉ được đếm ở đây, ETag đổi đúng một lần
+                resourceVersions.tablesChanged();
+                broadcastCoalescer.submitTable(toTableEvent(change));
+            } else if ("menu_items".equals(collectionName)) {
+                // menu ít thay đổi: dựng lại cả snapshot, giá và ETag menu theo kịp instance khác
+                menuCatalog.rebuild();
+            } else {
+                OrderUpdateEvent event = toOrderEvent(change);
+                if (event != null) {
+                    broadcastCoalescer.submitOrder(event);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Cannot relay change {} on {}", change.getOperationTypeString(), collectionName, e);
+        }
+    }
+
+    private TableStatusUpdateEvent toTableEvent(ChangeStreamDocument<Document> change) {
+        String tableId = change.getDocumentKey().get("_id").asObjectId().getValue().toHexString();
+        Document document = change.getFullDocument();
+        if (document == null) {
+            // delete, hoặc bàn đã bị xóa trước khi đọc lại được
+            return new TableStatusUpdateEvent("DELETE", null, tableId, null, null);
+        }
+
+        Table table = mongoTemplate.getConverter().read(Table.class, document);
+        String eventType = "insert".equals(change.getOperationTypeString()) ? "CREATE" : "UPDATE";
+        return new TableStatusUpdateEvent(eventType, table.getTableNumber(), table.getId(), table.getSeats(),
+                table.getStatus());
+    }
+
+    private OrderUpdateEvent toOrderEvent(ChangeStreamDocument<Document> change) {
+        Document document = change.getFullDocument();
+        if (document == null) {
+            return null;
+        }
+
+        Order order = mongoTemplate.getConverter().read(Order.class, document);
+        String eventType = "insert".equals(change.getOperationTypeString()) ? "created" : "updated";
+        return new OrderUpdateEvent(
+                eventType,
+                order.getId(),
+                order.getTable() != null ? order.getTable().getId() : null,
+                order.getUser() != null ? order.getUser().getId() : null,
+                order.getTotalAmount(),
+                order.getStatus(),
+                DtoMapper.toOrderResponseDto(order));
+    }
+
+    private BsonDocument loadResumeToken(String collectionName) {
+        Document offset = mongoTemplate.getCollection(OFFSETS_COLLECTION)
+                .find(Filters.eq("_id", offsetId(collectionName)))
+                .first();
+        if (offset == null || offset.get("token") == null) {
+            return null;
+        }
+        return offset.get("token", Document.class).toBsonDocument();
+    }
+
+    private void saveResumeToken(String collectionName, BsonDocument token) {
+        mongoTemplate.getCollection(OFFSETS_COLLECTION).replaceOne(
+                Filters.eq("_id", offsetId(collectionName)),
+                new Document("_id", offsetId(collectionName)).append("token", token),
+                new ReplaceOptions().upsert(true));
+    }
+
+    private String offsetId(String collectionName) {
+        return instanceId + ":" + collectionName;
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
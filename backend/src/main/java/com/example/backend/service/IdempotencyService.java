@@ -0,0 +1,175 @@
+package com.example.backend.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HexFormat;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.model.IdempotencyRecord;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Deduplicates retried requests that carry an Idempotency-Key. Completed
+ * responses are kept in a bounded in-process cache in front of the
+ * idempotency_keys collection, so a retry on the same instance is answered
+ * without any MongoDB round trip and a retry on another instance with one.
+ * Only successful outcomes are stored; a failed attempt releases its key so
+ * the client can simply try again.
+ */
+@Service
+public class IdempotencyService {
+
+    public enum Outcome {
+        NEW,          // lần đầu, xử lý rồi gọi complete() hoặc release()
+        REPLAY,       // đã xong trước đó, trả lại response cũ
+        MISMATCH,     // key đã dùng cho body khác
+        IN_PROGRESS   // lần gửi đầu vẫn đang chạy
+    }
+
+    /** lockedUntil identifies a NEW claim; complete() and release() only act while it still holds. */
+    public record Claim(Outcome outcome, String responseBody, Date lockedUntil) {
+
+        Claim(Outcome outcome, String responseBody) {
+            this(outcome, responseBody, null);
+        }
+    }
+
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+    private static final String COMPLETED = "COMPLETED";
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final Duration lockTimeout;
+    private final Cache<String, IdempotencyRecord> completed;
+
+    public IdempotencyService(MongoTemplate mongoTemplate, MeterRegistry meterRegistry,
+            @Value("${app.idempotency.ttl:24h}") Duration ttl,
+            @Value("${app.idempotency.lock-timeout:30s}") Duration lockTimeout,
+            @Value("${app.idempotency.cache-size:10000}") long cacheSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Claim claim(String scope, String key, byte[] requestBody) {
+        String id = scope + ":" + key;
+        String requestHash = sha256(requestBody);
+
+        IdempotencyRecord cached = completed.getIfPresent(id);
+        if (cached != null) {
+            return count(cached.getRequestHash().equals(requestHash)
+                    ? new Claim(Outcome.REPLAY, cached.getResponseBody())
+                    : new Claim(Outcome.MISMATCH, null));
+        }
+
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setId(id);
+        record.setRequestHash(requestHash);
+        record.setStatus(IN_PROGRESS);
+        record.setExpiresAt(Date.from(Instant.now().plus(lockTimeout)));
+        try {
+            mongoTemplate.insert(record);
+            return count(new Claim(Outcome.NEW, null, record.getExpiresAt()));
+        } catch (DuplicateKeyException e) {
+            // key đã có: đã xong, đang chạy, hoặc lần trước bị bỏ dở
+        }
+
+        IdempotencyRecord existing = mongoTemplate.findById(id, IdempotencyRecord.class);
+        if (existing == null) {
+            // vừa bị release hoặc hết hạn, thử lại một lần
+            return claimAgain(record);
+        }
+        if (!existing.getRequestHash().equals(requestHash)) {
+            return count(new Claim(Outcome.MISMATCH, null));
+        }
+        if (COMPLETED.equals(existing.getStatus())) {
+            completed.put(id, existing);
+            return count(new Claim(Outcome.REPLAY, existing.getResponseBody()));
+        }
+        if (existing.getExpiresAt().toInstant().isBefore(Instant.now())) {
+            // instance xử lý lần đầu đã chết giữa chừng, giành lại key
+            IdempotencyRecord taken = mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("id").is(id).and("status").is(IN_PROGRESS)
+                            .and("expiresAt").is(existing.getExpiresAt())),
+                    Update.update("expiresAt", record.getExpiresAt()),
+                    FindAndModifyOptions.options().returnNew(true),
+                    IdempotencyRecord.class);
+            if (taken != null) {
+                return count(new Claim(Outcome.NEW, null, taken.getExpiresAt()));
+            }
+        }
+        return count(new Claim(Outcome.IN_PROGRESS, null));
+    }
+
+    /**
+     * Stores the response of a NEW claim. Does nothing if the claim has been
+     * taken over in the meantime (its lock expired and another request
+     * reclaimed the key), so the other request's outcome is not overwritten.
+     */
+    public void complete(String scope, String key, Claim claim, String responseBody) {
+        String id = scope + ":" + key;
+        IdempotencyRecord record = mongoTemplate.findAndModify(
+                heldBy(id, claim),
+                new Update()
+                        .set("status", COMPLETED)
+                        .set("responseBody", responseBody)
+                        .set("expiresAt", Date.from(Instant.now().plus(ttl))),
+                FindAndModifyOptions.options().returnNew(true),
+                IdempotencyRecord.class);
+        if (record != null) {
+            completed.put(id, record);
+        }
+    }
+
+    public void release(String scope, String key, Claim claim) {
+        mongoTemplate.remove(heldBy(scope + ":" + key, claim), IdempotencyRecord.class);
+    }
+
+    private static Query heldBy(String id, Claim claim) {
+        return Query.query(Criteria.where("id").is(id)
+                .and("status").is(IN_PROGRESS)
+                .and("expiresAt").is(claim.lockedUntil()));
+    }
+
+    private Claim claimAgain(IdempotencyRecord record) {
+        try {
+            mongoTemplate.insert(record);
+            return count(new Claim(Outcome.NEW, null, record.getExpiresAt()));
+        } catch (DuplicateKeyException e) {
+            return count(new Claim(Outcome.IN_PROGRESS, null));
+        }
+    }
+
+    private Claim count(Claim claim) {
+        meterRegistry.counter("idempotency.requests", "outcome", claim.outcome().name().toLowerCase()).increment();
+        return claim;
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.backend.service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.backend.dto.OrderResponseDto;
+import com.example.backend.dto.OrderUpdateEvent;
+import com.example.backend.dto.TableResponseDto;
+import com.example.backend.dto.TableSnapshotDto;
+import com.example.backend.dto.TableStatusUpdateEvent;
+import com.example.backend.repository.OrderRepository;
+import com.example.backend.repository.TableRepository;
+import com.example.backend.util.DtoMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Current state of every table and of its open orders, as last broadcast.
+ * Loaded once at startup and then kept current by {@link BroadcastCoalescer},
+ * so STOMP subscribers get their initial snapshot without a database query.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LiveStateStore {
+
+    private final TableRepository tableRepository;
+    private final OrderRepository orderRepository;
+
+    private final Map<String, TableResponseDto> tables = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, OrderResponseDto>> activeOrdersByTable = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        tableRepository.findAll().forEach(table -> tables.put(table.getId(), DtoMapper.toTableResponseDto(table)));
+        orderRepository.findByStatusInOrderByOrderTimeAsc(OrderService.ACTIVE_STATUSES).stream()
+                .map(DtoMapper::toOrderResponseDto)
+                .filter(order -> order.getTable() != null)
+                .forEach(order -> activeOrdersByTable
+                        .computeIfAbsent(order.getTable().getId(), id -> new ConcurrentHashMap<>())
+                        .put(order.getId(), order));
+        log.info("Live state loaded: {} tables, {} tables with open orders", tables.size(),
+                activeOrdersByTable.size());
+    }
+
+    public void applyTable(TableStatusUpdateEvent event) {
+        if ("DELETE".equals(event.getEventType())) {
+            tables.remove(event.getTableId());
+            activeOrdersByTable.remove(event.getTableId());
+            return;
+        }
+        tables.put(event.getTableId(), TableResponseDto.builder()
+                .id(event.getTableId())
+                .tableNumber(event.getTableNumber())
+                .status(event.getStatus())
+                .seats(event.getSeats())
+                .build());
+    }
+
+    public void applyOrder(OrderUpdateEvent event) {
+        if (event.getTableId() == null) {
+            return;
+        }
+        Map<String, OrderResponseDto> orders = activeOrdersByTable
+                .computeIfAbsent(event.getTableId(), id -> new ConcurrentHashMap<>());
+        if (OrderService.ACTIVE_STATUSES.contains(event.getStatus()) && event.getOrder() != null) {
+            orders.put(event.getOrderId(), event.getOrder());
+        } else {
+            orders.remove(event.getOrderId());
+        }
+    }
+
+    public List<TableResponseDto> tables() {
+        return tables.values().stream()
+                .sorted(Comparator.comparing(TableResponseDto::getTableNumber,
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    public TableSnapshotDto snapshot(String tableId) {
+        Map<String, OrderResponseDto> orders = activeOrdersByTable.getOrDefault(tableId, Map.of());
+        return TableSnapshotDto.builder()
+                .table(tables.get(tableId))
+                .activeOrders(orders.values().stream()
+                        .sorted(Comparator.comparing(OrderResponseDto::getOrderTime))
+                        .toList())
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.backend.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.stereotype.Component;
+
+import com.example.backend.model.MenuItem;
+import com.example.backend.repository.MenuItemRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * In-process, versioned snapshot of the menu. Reads never touch MongoDB;
+ * {@link MenuService} rebuilds the snapshot after every write and the new
+ * snapshot replaces the old one atomically. Items held by a snapshot are
+ * shared between readers and must be treated as read-only.
+ *
+ * Writes of other instances only reach this snapshot with
+ * app.websocket.fanout=change-stream, where {@link ChangeStreamRelay}
+ * rebuilds it on every change of menu_items. With local fan-out the catalog,
+ * like the rest of the live state, assumes a single instance. A rebuild that
+ * finds the same items keeps the current version, so the relayed echo of a
+ * local write does not change the menu ETag a second time.
+ */
+@Component
+public class MenuCatalog {
+
+    public record Snapshot(long version, List<MenuItem> all, List<MenuItem> available,
+            Map<String, MenuItem> byId) {
+    }
+
+    private final MenuItemRepository menuItemRepository;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer rebuildTimer;
+
+    public MenuCatalog(MenuItemRepository menuItemRepository, MeterRegistry meterRegistry) {
+        this.menuItemRepository = menuItemRepository;
+        this.hits = Counter.builder("menu.catalog.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("menu.catalog.lookups").tag("result", "miss").register(meterRegistry);
+        this.rebuildTimer = Timer.builder("menu.catalog.rebuild").register(meterRegistry);
+        Gauge.builder("menu.catalog.version", current, ref -> ref.get() == null ? 0 : ref.get().version())
+                .register(meterRegistry);
+        Gauge.builder("menu.catalog.items", current, ref -> ref.get() == null ? 0 : ref.get().all().size())
+                .register(meterRegistry);
+    }
+
+    public Snapshot snapshot() {
+        Snapshot snapshot = current.get();
+        return snapshot != null ? snapshot : rebuild();
+    }
+
+    public Optional<MenuItem> findById(String id) {
+        MenuItem menuItem = snapshot().byId().get(id);
+        if (menuItem != null) {
+            hits.increment();
+            return Optional.of(menuItem);
+        }
+        // Có thể món vừa được thêm ở instance khác, đọc thẳng từ DB
+        misses.increment();
+        return menuItemRepository.findById(id);
+    }
+
+    public synchronized Snapshot rebuild() {
+        return rebuildTimer.record(() -> {
+            List<MenuItem> all = List.copyOf(menuItemRepository.findAll());
+            List<MenuItem> available = all.stream()
+                    .filter(item -> Boolean.TRUE.equals(item.getAvailable()))
+                    .toList();
+            Map<String, MenuItem> byId = new HashMap<>();
+            for (MenuItem item : all) {
+                byId.put(item.getId(), item);
+            }
+
+            Snapshot previous = current.get();
+            if (previous != null && previous.all().equals(all)) {
+                return previous;
+            }
+            long version = previous == null ? 1 : previous.version() + 1;
+            Snapshot snapshot = new Snapshot(version, all, available, Map.copyOf(byId));
+            current.set(snapshot);
+            return snapshot;
+        });
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.stereotype.Component;
+
+import com.example.backend.model.MenuItem;
+import com.example.backend.util.DtoMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Ready-to-send bodies of the public menu endpoints: the whole menu, the
+ * available items, and the available items of each category, each as UTF-8
+ * JSON and gzip bytes with their ETags. Bodies are rendered once per
+ * {@link MenuCatalog} version, the first time a request sees a new version,
+ * so a request normally costs a version check and a byte copy to the socket.
+ */
+@Component
+public class MenuResponseCache {
+
+    public record Body(byte[] json, byte[] gzip, String etag, String gzipEtag) {
+    }
+
+    private record Rendered(long version, Body all, Body available, Map<String, Body> byCategory,
+            Body emptyCategory) {
+    }
+
+    private final MenuCatalog menuCatalog;
+    private final ObjectMapper objectMapper;
+    private final ResourceVersions resourceVersions;
+    private final Timer renderTimer;
+    private volatile Rendered rendered;
+
+    public MenuResponseCache(MenuCatalog menuCatalog, ObjectMapper objectMapper, ResourceVersions resourceVersions,
+            MeterRegistry meterRegistry) {
+        this.menuCatalog = menuCatalog;
+        this.objectMapper = objectMapper;
+        this.resourceVersions = resourceVersions;
+        this.renderTimer = Timer.builder("menu.response.render").register(meterRegistry);
+    }
+
+    public Body all() {
+        return current().all();
+    }
+
+    public Body available() {
+        return current().available();
+    }
+
+    public Body category(String category) {
+        Rendered current = current();
+        return current.byCategory().getOrDefault(categoryKey(category), current.emptyCategory());
+    }
+
+    private Rendered current() {
+        MenuCatalog.Snapshot snapshot = menuCatalog.snapshot();
+        Rendered current = rendered;
+        if (current != null && current.version() >= snapshot.version()) {
+            return current;
+        }
+        return render(snapshot);
+    }
+
+    private synchronized Rendered render(MenuCatalog.Snapshot snapshot) {
+        Rendered current = rendered;
+        if (current != null && current.version() >= snapshot.version()) {
+            return current;
+        }
+
+        Rendered fresh = renderTimer.record(() -> {
+            long version = snapshot.version();
+            Map<String, List<MenuItem>> grouped = snapshot.available().stream()
+                    .filter(item -> item.getCategory() != null)
+                    .collect(Collectors.groupingBy(item -> categoryKey(item.getCategory())));
+            Map<String, Body> byCategory = new HashMap<>();
+            grouped.forEach((category, items) -> byCategory.put(category, body("menu-category", version, items)));
+
+            return new Rendered(version,
+                    body("menu", version, snapshot.all()),
+                    body("menu-available", version, snapshot.available()),
+                    Map.copyOf(byCategory),
+                    body("menu-category", version, List.of()));
+        });
+        rendered = fresh;
+        return fresh;
+    }
+
+    private Body body(String resource, long version, List<MenuItem> items) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(items.stream()
+                    .map(DtoMapper::toMenuItemResponseDto)
+                    .toList());
+            return new Body(json, gzip(json),
+                    resourceVersions.etag(resource, version),
+                    resourceVersions.etag(resource + "-gzip", version));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize menu", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String categoryKey(String category) {
+        return category.trim().toLowerCase(Locale.ROOT);
+    }
+}
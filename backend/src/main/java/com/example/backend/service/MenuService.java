@@ -7,22 +7,30 @@ import org.springframework.stereotype.Service;
 
 import java.util.List;
 
+import io.micrometer.core.annotation.Timed;
+
 @Service
+@Timed("app.service")
 public class MenuService {
 
     @Autowired
     private MenuItemRepository menuItemRepository;
 
+    @Autowired
+    private MenuCatalog menuCatalog;
+
     public List<MenuItem> getAllMenuItems() {
-        return menuItemRepository.findAll();
+        return menuCatalog.snapshot().all();
     }
 
     public List<MenuItem> getAvailableMenuItems() {
-        return menuItemRepository.findByAvailableTrue();
+        return menuCatalog.snapshot().available();
     }
 
     public MenuItem createMenuItem(MenuItem menuItem) {
-        return menuItemRepository.save(menuItem);
+        MenuItem saved = menuItemRepository.save(menuItem);
+        menuCatalog.rebuild();
+        return saved;
     }
 
     public MenuItem updateMenuItem(String id, MenuItem menuItem) {
@@ -35,10 +43,13 @@ public class MenuService {
         existing.setCategory(menuItem.getCategory());
         existing.setAvailable(menuItem.getAvailable());
 
-        return menuItemRepository.save(existing);
+        MenuItem saved = menuItemRepository.save(existing);
+        menuCatalog.rebuild();
+        return saved;
     }
 
     public void deleteMenuItem(String id) {
         menuItemRepository.deleteById(id);
+        menuCatalog.rebuild();
     }
 }
@@ -0,0 +1,155 @@
+package com.example.backend.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.model.Table;
+import com.example.backend.repository.TableRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+
+/**
+ * Writes orders of a date range straight from a MongoDB cursor to an output
+ * stream. Raw documents are read so no DBRef is resolved per row; table
+ * numbers come from a map loaded once per export.
+ */
+@Service
+public class OrderExportService {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int FLUSH_EVERY = 200;
+    private static final String[] CSV_HEADER = { "orderId", "orderTime", "paidTime", "status", "tableId",
+            "tableNumber", "userId", "totalAmount", "items" };
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TableRepository tableRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void export(LocalDate from, LocalDate to, String status, boolean ndjson, OutputStream out)
+            throws IOException {
+        ZoneId zone = ZoneId.systemDefault();
+        List<Bson> filters = new ArrayList<>();
+        filters.add(Filters.gte("orderTime", Date.from(from.atStartOfDay(zone).toInstant())));
+        filters.add(Filters.lt("orderTime", Date.from(to.plusDays(1).atStartOfDay(zone).toInstant())));
+        if (status != null && !status.isBlank()) {
+            filters.add(Filters.eq("status", status));
+        }
+
+        Map<String, Integer> tableNumbers = new HashMap<>();
+        for (Table table : tableRepository.findAll()) {
+            tableNumbers.put(table.getId(), table.getTableNumber());
+        }
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (!ndjson) {
+            writer.write(String.join(",", CSV_HEADER));
+            writer.write('\n');
+        }
+
+        try (MongoCursor<Document> cursor = mongoTemplate.getCollection("orders")
+                .find(Filters.and(filters))
+                .sort(Sorts.ascending("orderTime"))
+                .batchSize(BATCH_SIZE)
+                .iterator()) {
+            long rows = 0;
+            while (cursor.hasNext()) {
+                Map<String, Object> row = toRow(cursor.next(), tableNumbers, zone);
+                if (ndjson) {
+                    writer.write(objectMapper.writeValueAsString(row));
+                } else {
+                    writeCsv(writer, row);
+                }
+                writer.write('\n');
+
+                // đẩy dữ liệu ra sớm để client nhận được ngay các dòng đầu
+                if (++rows % FLUSH_EVERY == 1) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private Map<String, Object> toRow(Document order, Map<String, Integer> tableNumbers, ZoneId zone) {
+        String tableId = refId(order.get("table"));
+        StringJoiner items = new StringJoiner("; ");
+        for (Document item : order.getList("items", Document.class, List.of())) {
+            items.add(item.getString("name") + " x" + item.get("quantity"));
+        }
+
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("orderId", order.get("_id").toString());
+        row.put("orderTime", toLocal(order.getDate("orderTime"), zone));
+        row.put("paidTime", toLocal(order.getDate("paidTime"), zone));
+        row.put("status", order.getString("status"));
+        row.put("tableId", tableId);
+        row.put("tableNumber", tableId != null ? tableNumbers.get(tableId) : null);
+        row.put("userId", refId(order.get("user")));
+        row.put("totalAmount", order.get("totalAmount"));
+        row.put("items", items.toString());
+        return row;
+    }
+
+    private static void writeCsv(Writer writer, Map<String, Object> row) throws IOException {
+        boolean first = true;
+        for (Object value : row.values()) {
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            if (value == null) {
+                continue;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+    }
+
+    private static String toLocal(Date date, ZoneId zone) {
+        return date != null ? LocalDateTime.ofInstant(date.toInstant(), zone).toString() : null;
+    }
+
+    private static String refId(Object ref) {
+        if (ref instanceof DBRef dbRef) {
+            return dbRef.getId().toString();
+        }
+        if (ref instanceof Document document && document.get("$id") != null) {
+            return document.get("$id").toString();
+        }
+        return null;
+    }
+}
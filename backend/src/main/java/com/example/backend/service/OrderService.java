@@ -2,11 +2,14 @@ package com.example.backend.service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
-import com.example.backend.controller.WebSocketController;
 import com.example.backend.dto.OrderRequest;
 import com.example.backend.dto.OrderResponseDto;
 import com.example.backend.dto.OrderUpdateEvent;
@@ -16,51 +19,58 @@ import com.example.backend.model.Order;
 import com.example.backend.model.OrderItem;
 import com.example.backend.model.Table;
 import com.example.backend.model.User;
-import com.example.backend.repository.MenuItemRepository;
-import com.example.backend.repository.OrderItemRepository;
 import com.example.backend.repository.OrderRepository;
 import com.example.backend.repository.TableRepository;
-import com.example.backend.repository.UserRepository;
 import com.example.backend.util.DtoMapper;
+import com.example.backend.util.OrderCursor;
+
+import io.micrometer.core.annotation.Timed;
 
 @Service
+@Timed("app.service")
 public class OrderService {
 
+    public static final List<String> ACTIVE_STATUSES = List.of("PENDING", "CONFIRMED", "OCCUPIED");
+
     @Autowired
     private OrderRepository orderRepository;
 
     @Autowired
-    private OrderItemRepository orderItemRepository;
+    private TableRepository tableRepository;
 
     @Autowired
-    private TableRepository tableRepository;
+    private UserProfileCache userProfileCache;
 
     @Autowired
-    private UserRepository userRepository;
+    private MenuCatalog menuCatalog;
 
     @Autowired
-    private MenuItemRepository menuItemRepository;
+    private ActiveOrderIndex activeOrderIndex;
 
     @Autowired
-    private WebSocketController webSocketController;
+    private ReportService reportService;
 
-    public Order createOrder(OrderRequest request) {
-        Table table = tableRepository.findById(request.getTableId())
-                .orElseThrow(() -> new RuntimeException("Không tìm thấy bàn"));
+    @Autowired
+    private OutboxService outboxService;
 
-        if (!"AVAILABLE".equals(table.getStatus())) {
-            throw new RuntimeException("Bàn này đã có khách");
-        }
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Value("${app.pagination.default-page-size:10}")
+    private int defaultPageSize;
 
+    @Value("${app.pagination.max-page-size:100}")
+    private int maxPageSize;
+
+    public Order createOrder(OrderRequest request) {
         if (request.getUserId() == null) {
             throw new RuntimeException("Vui lòng đăng nhập để đặt bàn");
         }
 
-        User user = userRepository.findById(request.getUserId())
+        User user = userProfileCache.findById(request.getUserId())
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy người dùng"));
 
         Order order = new Order();
-        order.setTable(table);
         order.setUser(user);
         order.setOrderTime(LocalDateTime.now());
         order.setStatus("PENDING");
@@ -68,61 +78,72 @@ public class OrderService {
         double totalAmount = 0.0;
 
         for (OrderRequest.OrderItemRequest itemReq : request.getItems()) {
-            MenuItem menuItem = menuItemRepository.findById(itemReq.getMenuItemId())
+            MenuItem menuItem = menuCatalog.findById(itemReq.getMenuItemId())
                     .orElseThrow(() -> new RuntimeException("Không tìm thấy món ăn"));
 
             OrderItem orderItem = new OrderItem();
-            orderItem.setMenuItem(menuItem);
+            orderItem.setMenuItemId(menuItem.getId());
+            orderItem.setName(menuItem.getName());
+            orderItem.setCategory(menuItem.getCategory());
             orderItem.setQuantity(itemReq.getQuantity());
             orderItem.setPrice(menuItem.getPrice());
             orderItem.setSubtotal(menuItem.getPrice() * itemReq.getQuantity());
 
-            orderItemRepository.save(orderItem);
             order.getItems().add(orderItem);
             totalAmount += orderItem.getSubtotal();
         }
 
         order.setTotalAmount(totalAmount);
 
-        // cập nhật bàn
-        table.setStatus("PENDING");
-        Table savedTable = tableRepository.save(table);
-
-        // lưu đơn
-        Order savedOrder = orderRepository.save(order);
+        Order savedOrder = outboxService.inUnitOfWork(() -> {
+            // giữ bàn: chỉ thành công nếu bàn vẫn đang trống
+            Table savedTable = transitionTable(request.getTableId(), TableStateMachine.PENDING,
+                    "Bàn này đã có khách");
+            order.setTable(savedTable);
+
+            // lưu đơn, trả lại bàn nếu ghi đơn thất bại (trong transaction thì rollback lo)
+            Order inserted;
+            try {
+                inserted = orderRepository.insert(order);
+            } catch (RuntimeException e) {
+                if (!outboxService.isTransactional()) {
+                    tableRepository.transitionStatus(savedTable.getId(), List.of(TableStateMachine.PENDING),
+                            TableStateMachine.AVAILABLE);
+                    resourceVersions.bumpTables();
+                }
+                throw e;
+            }
+
+            outboxService.publishTable(tableEvent(savedTable));
+            outboxService.publishOrder(orderEvent(inserted, "created"));
+            return inserted;
+        });
+
+        activeOrderIndex.track(savedOrder);
+        reportService.recordOrderCreated(savedOrder);
+        return savedOrder;
+    }
 
-        // gửi event socket
-        TableStatusUpdateEvent tableEvent = new TableStatusUpdateEvent(
-                "UPDATE",
-                savedTable.getTableNumber(),
-                savedTable.getId(),
-                savedTable.getSeats(),
-                savedTable.getStatus());
-        webSocketController.broadcastTableUpdate(tableEvent);
-
-        OrderResponseDto orderDto = DtoMapper.toOrderResponseDto(savedOrder);
-        OrderUpdateEvent orderEvent = new OrderUpdateEvent(
-                "created",
-                savedOrder.getId(),
-                savedOrder.getTable().getId(),
-                savedOrder.getUser().getId(),
-                savedOrder.getTotalAmount(),
-                savedOrder.getStatus(),
-                orderDto);
-        webSocketController.broadcastOrderUpdate(orderEvent);
+    public int resolvePageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
 
-        return savedOrder;
+    public List<Order> getOrderPage(OrderCursor after, int limit) {
+        return orderRepository.findPage(after, limit);
     }
 
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+    public Stream<Order> streamOrders(OrderCursor after) {
+        return orderRepository.streamFrom(after);
     }
 
     public List<Order> getActiveOrders() {
-        return orderRepository.findAll()
-                .stream()
-                .filter(o -> !"PAID".equals(o.getStatus()))
-                .toList();
+        if (activeOrderIndex.isEnabled()) {
+            return activeOrderIndex.list();
+        }
+        return orderRepository.findByStatusInOrderByOrderTimeAsc(ACTIVE_STATUSES);
     }
 
     public List<Order> getOrdersByTable(String tableId) {
@@ -130,91 +151,149 @@ public class OrderService {
     }
 
     public Order completeOrder(String orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Không tìm thấy đơn hàng"));
+        Order order = outboxService.inUnitOfWork(() -> {
+            List<String> fromStatuses = exactSource(orderId, ACTIVE_STATUSES);
+            Order paid = transitionOrder(orderId, fromStatuses, new Update()
+                    .set("status", "PAID")
+                    .set("paidTime", LocalDateTime.now()));
+            paid.setTable(transitionTableOrRevert(paid, TableStateMachine.AVAILABLE, new Update()
+                    .set("status", fromStatuses.get(0))
+                    .unset("paidTime")));
+            publishUpdate(paid);
+            return paid;
+        });
+
+        activeOrderIndex.track(order);
+        reportService.recordOrderCompleted(order);
+        return order;
+    }
 
-        order.setStatus("PAID");
-        order.setPaidTime(LocalDateTime.now());
-        Table table = order.getTable();
-        table.setStatus("AVAILABLE");
-        Table savedTable = tableRepository.save(table);
-        Order savedOrder = orderRepository.save(order);
+    public void clearTable(String tableId) {
+        outboxService.inUnitOfWork(() -> {
+            Table savedTable = transitionTable(tableId, TableStateMachine.AVAILABLE, "Bàn đang trống");
+            outboxService.publishTable(tableEvent(savedTable));
+            return savedTable;
+        });
+    }
 
-        broadcastUpdate(savedTable, savedOrder, "updated");
-        return savedOrder;
+    public Order confirmOrder(String orderId) {
+        Order order = outboxService.inUnitOfWork(() -> {
+            Order confirmed = transitionOrder(orderId, List.of("PENDING"), Update.update("status", "CONFIRMED"));
+            confirmed.setTable(transitionTableOrRevert(confirmed, TableStateMachine.OCCUPIED,
+                    Update.update("status", "PENDING")));
+            publishUpdate(confirmed);
+            return confirmed;
+        });
+
+        activeOrderIndex.track(order);
+        return order;
     }
 
-    public void clearTable(String tableId) {
-        Table table = tableRepository.findById(tableId)
-                .orElseThrow(() -> new RuntimeException("Không tìm thấy bàn"));
-        table.setStatus("AVAILABLE");
-        Table savedTable = tableRepository.save(table);
+    public void checkInTable(String tableId) {
+        Optional<Order> checkedIn = outboxService.inUnitOfWork(() -> {
+            Optional<Table> seated = tableRepository.transitionStatus(tableId,
+                    TableStateMachine.allowedSources(TableStateMachine.OCCUPIED), TableStateMachine.OCCUPIED);
+
+            // bàn đã OCCUPIED từ lúc xác nhận đơn: chỉ còn chuyển đơn CONFIRMED sang OCCUPIED
+            Optional<Order> activeOrder = orderRepository.transitionLatestForTable(tableId,
+                    seated.isPresent() ? ACTIVE_STATUSES : List.of("CONFIRMED"),
+                    Update.update("status", "OCCUPIED"));
+            if (seated.isEmpty() && activeOrder.isEmpty()) {
+                throw new RuntimeException(tableRepository.existsById(tableId)
+                        ? "Bàn đã có khách"
+                        : "Không tìm thấy bàn");
+            }
+
+            Table savedTable = seated.orElseGet(() -> activeOrder.get().getTable());
+            if (seated.isPresent()) {
+                resourceVersions.bumpTables();
+                outboxService.publishTable(tableEvent(savedTable));
+            }
+            activeOrder.ifPresent(o -> {
+                o.setTable(savedTable);
+                outboxService.publishOrder(orderEvent(o, "updated"));
+            });
+            return activeOrder;
+        });
+
+        checkedIn.ifPresent(activeOrderIndex::track);
+    }
 
-        TableStatusUpdateEvent event = new TableStatusUpdateEvent(
-                "UPDATE",
-                savedTable.getTableNumber(),
-                savedTable.getId(),
-                savedTable.getSeats(),
-                savedTable.getStatus());
-        webSocketController.broadcastTableUpdate(event);
+    private Table transitionTable(String tableId, String target, String conflictMessage) {
+        Table table = tableRepository.transitionStatus(tableId, TableStateMachine.allowedSources(target), target)
+                .orElseThrow(() -> new RuntimeException(
+                        conflictMessage != null && tableRepository.existsById(tableId)
+                                ? conflictMessage
+                                : "Không tìm thấy bàn"));
+        resourceVersions.bumpTables();
+        return table;
     }
 
-    public Order confirmOrder(String orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Không tìm thấy đơn hàng"));
-        order.setStatus("CONFIRMED");
-        Order savedOrder = orderRepository.save(order);
+    /**
+     * Moves the table of an order that was just transitioned. Without a
+     * transaction a failed table move would leave the order in its new status
+     * on a table that never followed, so the order is put back with
+     * {@code revert} before the error is rethrown.
+     */
+    private Table transitionTableOrRevert(Order order, String target, Update revert) {
+        try {
+            return transitionTable(order.getTable().getId(), target, "Trạng thái bàn không cho phép thao tác này");
+        } catch (RuntimeException e) {
+            if (!outboxService.isTransactional()) {
+                orderRepository.transitionStatus(order.getId(), List.of(order.getStatus()), revert);
+            }
+            throw e;
+        }
+    }
 
-        Table table = order.getTable();
-        table.setStatus("OCCUPIED");
-        Table savedTable = tableRepository.save(table);
+    /**
+     * Without a transaction the compensation needs the exact status the order
+     * came from, so the allowed sources are narrowed to the current status.
+     */
+    private List<String> exactSource(String orderId, List<String> allowed) {
+        if (allowed.size() == 1 || outboxService.isTransactional()) {
+            return allowed;
+        }
+        String current = orderRepository.findById(orderId)
+                .map(Order::getStatus)
+                .orElseThrow(() -> new RuntimeException("Không tìm thấy đơn hàng"));
+        if (!allowed.contains(current)) {
+            throw new RuntimeException("Trạng thái đơn hàng không cho phép thao tác này");
+        }
+        return List.of(current);
+    }
 
-        broadcastUpdate(savedTable, savedOrder, "updated");
-        return savedOrder;
+    private Order transitionOrder(String orderId, List<String> fromStatuses, Update update) {
+        return orderRepository.transitionStatus(orderId, fromStatuses, update)
+                .orElseThrow(() -> new RuntimeException(
+                        orderRepository.existsById(orderId)
+                                ? "Trạng thái đơn hàng không cho phép thao tác này"
+                                : "Không tìm thấy đơn hàng"));
     }
 
-    public void checkInTable(String tableId) {
-        Table table = tableRepository.findById(tableId)
-                .orElseThrow(() -> new RuntimeException("Không tìm thấy bàn"));
-        table.setStatus("OCCUPIED");
-        Table savedTable = tableRepository.save(table);
+    private void publishUpdate(Order savedOrder) {
+        outboxService.publishTable(tableEvent(savedOrder.getTable()));
+        outboxService.publishOrder(orderEvent(savedOrder, "updated"));
+    }
 
-        TableStatusUpdateEvent event = new TableStatusUpdateEvent(
-                "UPDATE",
-                savedTable.getTableNumber(),
-                savedTable.getId(),
-                savedTable.getSeats(),
-                savedTable.getStatus());
-        webSocketController.broadcastTableUpdate(event);
-
-        orderRepository.findByTable_Id(tableId).stream()
-                .filter(o -> !"PAID".equals(o.getStatus()))
-                .reduce((first, second) -> second)
-                .ifPresent(activeOrder -> {
-                    activeOrder.setStatus("OCCUPIED");
-                    Order savedOrder = orderRepository.save(activeOrder);
-                    broadcastUpdate(savedTable, savedOrder, "updated");
-                });
-    }
-
-    private void broadcastUpdate(Table savedTable, Order savedOrder, String action) {
-        TableStatusUpdateEvent tableEvent = new TableStatusUpdateEvent(
+    private static TableStatusUpdateEvent tableEvent(Table table) {
+        return new TableStatusUpdateEvent(
                 "UPDATE",
-                savedTable.getTableNumber(),
-                savedTable.getId(),
-                savedTable.getSeats(),
-                savedTable.getStatus());
-        webSocketController.broadcastTableUpdate(tableEvent);
-
-        OrderResponseDto orderDto = DtoMapper.toOrderResponseDto(savedOrder);
-        OrderUpdateEvent orderEvent = new OrderUpdateEvent(
+                table.getTableNumber(),
+                table.getId(),
+                table.getSeats(),
+                table.getStatus());
+    }
+
+    private static OrderUpdateEvent orderEvent(Order order, String action) {
+        OrderResponseDto orderDto = DtoMapper.toOrderResponseDto(order);
+        return new OrderUpdateEvent(
                 action,
-                savedOrder.getId(),
-                savedOrder.getTable().getId(),
-                savedOrder.getUser().getId(),
-                savedOrder.getTotalAmount(),
-                savedOrder.getStatus(),
+                order.getId(),
+                order.getTable().getId(),
+                order.getUser().getId(),
+                order.getTotalAmount(),
+                order.getStatus(),
                 orderDto);
-        webSocketController.broadcastOrderUpdate(orderEvent);
     }
 }
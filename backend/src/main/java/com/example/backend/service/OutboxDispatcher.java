@@ -0,0 +1,196 @@
+package com.example.backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.backend.controller.WebSocketController;
+import com.example.backend.model.OutboxEvent;
+import com.example.backend.repository.OutboxEventRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains the outbox in _id order, one batch per tick, on the scheduler
+ * thread. A dispatcher claims its own instance's events right away and the
+ * events of any instance once they are older than app.outbox.orphan-after,
+ * so events left behind by a crashed or replaced instance are still
+ * delivered. Claims are leases (claimedBy/leaseUntil): events of a
+ * dispatcher that dies mid-batch become claimable again when the lease
+ * expires. Events go through the usual broadcast path and are only deleted
+ * after the coalescer has flushed them (at-least-once). Tables with events
+ * under another dispatcher's lease are skipped, and if an event fails, later
+ * events of the same table are held back until the next tick, to keep
+ * per-table order.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final MongoTemplate mongoTemplate;
+    private final WebSocketController webSocketController;
+    private final BroadcastCoalescer broadcastCoalescer;
+    private final String instanceId;
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration orphanAfter;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter dispatched;
+    private final Counter failed;
+    private final Counter adopted;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository, MongoTemplate mongoTemplate,
+            WebSocketController webSocketController, BroadcastCoalescer broadcastCoalescer,
+            MeterRegistry meterRegistry,
+            @Value("${app.instance-id:local}") String instanceId,
+            @Value("${app.outbox.batch-size:200}") int batchSize,
+            @Value("${app.outbox.lease:30s}") Duration lease,
+            @Value("${app.outbox.orphan-after:30s}") Duration orphanAfter) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.webSocketController = webSocketController;
+        this.broadcastCoalescer = broadcastCoalescer;
+        this.instanceId = instanceId;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.orphanAfter = orphanAfter;
+        this.dispatched = Counter.builder("outbox.dispatched").register(meterRegistry);
+        this.failed = Counter.builder("outbox.failed").register(meterRegistry);
+        this.adopted = Counter.builder("outbox.adopted").register(meterRegistry);
+        Gauge.builder("outbox.pending", pending, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("outbox.lag.seconds", lagMillis, ref -> ref.get() / 1000.0).register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-ms:50}")
+    public void dispatch() {
+        List<OutboxEvent> batch = claim();
+        if (batch.isEmpty()) {
+            // estimatedCount đọc metadata của collection, không quét
+            pending.set(mongoTemplate.estimatedCount(OutboxEvent.class));
+            lagMillis.set(0);
+            return;
+        }
+        lagMillis.set(Duration.between(batch.get(0).getCreatedAt(), Instant.now()).toMillis());
+
+        List<String> delivered = new ArrayList<>();
+        List<String> held = new ArrayList<>();
+        Set<String> blocked = new HashSet<>();
+        for (OutboxEvent event : batch) {
+            if (event.getAggregateId() != null && blocked.contains(event.getAggregateId())) {
+                held.add(event.getId());
+                continue;
+            }
+            try {
+                if (event.getTableEvent() != null) {
+                    webSocketController.broadcastTableUpdate(event.getTableEvent());
+                }
+                if (event.getOrderEvent() != null) {
+                    webSocketController.broadcastOrderUpdate(event.getOrderEvent());
+                }
+                delivered.add(event.getId());
+                if (!instanceId.equals(event.getInstanceId())) {
+                    adopted.increment();
+                }
+            } catch (RuntimeException e) {
+                log.error("Cannot dispatch outbox event {}", event.getId(), e);
+                failed.increment();
+                held.add(event.getId());
+                if (event.getAggregateId() != null) {
+                    blocked.add(event.getAggregateId());
+                }
+            }
+        }
+
+        broadcastCoalescer.flush();
+        outboxEventRepository.deleteAllById(delivered);
+        release(held);
+        dispatched.increment(delivered.size());
+        pending.set(mongoTemplate.estimatedCount(OutboxEvent.class));
+    }
+
+    /**
+     * Picks the next batch and leases it to this tick. The updateMulti only
+     * matches events whose lease is still free, so when two dispatchers pick
+     * the same candidates each event ends up with exactly one of them; the
+     * events this tick actually won are read back by its claim token.
+     */
+    private List<OutboxEvent> claim() {
+        Instant now = Instant.now();
+        Query claimable = claimableQuery(instanceId, now, orphanAfter).limit(batchSize);
+        claimable.fields().include("id", "aggregateId");
+        List<OutboxEvent> candidates = mongoTemplate.find(claimable, OutboxEvent.class);
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        // bàn đang có event do dispatcher khác giữ: bỏ qua để không gửi sai thứ tự
+        Set<String> aggregateIds = new HashSet<>();
+        for (OutboxEvent candidate : candidates) {
+            if (candidate.getAggregateId() != null) {
+                aggregateIds.add(candidate.getAggregateId());
+            }
+        }
+        Set<String> busy = aggregateIds.isEmpty() ? Set.of() : new HashSet<>(mongoTemplate.findDistinct(
+                Query.query(Criteria.where("leaseUntil").gt(now).and("aggregateId").in(aggregateIds)),
+                "aggregateId", OutboxEvent.class, String.class));
+        List<String> ids = candidates.stream()
+                .filter(event -> event.getAggregateId() == null || !busy.contains(event.getAggregateId()))
+                .map(OutboxEvent::getId)
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        String token = instanceId + ":" + UUID.randomUUID();
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("id").in(ids).andOperator(leaseFree(now))),
+                new Update().set("claimedBy", token).set("leaseUntil", now.plus(lease)),
+                OutboxEvent.class);
+        return mongoTemplate.find(Query.query(Criteria.where("claimedBy").is(token)).with(Sort.by("id")),
+                OutboxEvent.class);
+    }
+
+    private void release(Collection<String> ids) {
+        if (!ids.isEmpty()) {
+            mongoTemplate.updateMulti(Query.query(Criteria.where("id").in(ids)),
+                    new Update().unset("claimedBy").unset("leaseUntil"), OutboxEvent.class);
+        }
+    }
+
+    /** Events this instance may claim now: its own, or anyone's older than orphanAfter, with a free lease. */
+    public static Query claimableQuery(String instanceId, Instant now, Duration orphanAfter) {
+        return Query.query(new Criteria().andOperator(
+                new Criteria().orOperator(
+                        Criteria.where("instanceId").is(instanceId),
+                        Criteria.where("createdAt").lt(now.minus(orphanAfter))),
+                leaseFree(now)))
+                .with(Sort.by("id"));
+    }
+
+    private static Criteria leaseFree(Instant now) {
+        return new Criteria().orOperator(
+                Criteria.where("leaseUntil").is(null),
+                Criteria.where("leaseUntil").lte(now));
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.backend.service;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.controller.WebSocketController;
+import com.example.backend.dto.OrderUpdateEvent;
+import com.example.backend.dto.TableStatusUpdateEvent;
+import com.example.backend.model.OutboxEvent;
+import com.example.backend.repository.OutboxEventRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Entry point for domain events raised by the services. With the outbox
+ * enabled an event is only written to the outbox collection, next to the
+ * state change it belongs to, and {@link OutboxDispatcher} broadcasts it
+ * later; request threads never wait for STOMP. Wrap the change and its
+ * events in {@link #inUnitOfWork} so both commit together when MongoDB
+ * transactions are enabled. Without transactions the state change is
+ * already stored when its event is written, so a failing outbox write is
+ * logged and counted (outbox.lost) instead of failing a request whose
+ * change went through; the same holds for direct broadcasts when the outbox
+ * is disabled.
+ */
+@Slf4j
+@Service
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final WebSocketController webSocketController;
+    private final TransactionTemplate transactionTemplate;
+    private final String instanceId;
+    private final boolean enabled;
+    private final Counter lost;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, WebSocketController webSocketController,
+            ObjectProvider<MongoTransactionManager> transactionManager, MeterRegistry meterRegistry,
+            @Value("${app.instance-id:local}") String instanceId,
+            @Value("${app.outbox.enabled:true}") boolean outboxEnabled,
+            @Value("${app.websocket.fanout:local}") String fanout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.webSocketController = webSocketController;
+        MongoTransactionManager manager = transactionManager.getIfAvailable();
+        this.transactionTemplate = manager != null ? new TransactionTemplate(manager) : null;
+        this.instanceId = instanceId;
+        // Ở chế độ change-stream, thay đổi trong DB đã là nguồn sự kiện, không cần outbox
+        this.enabled = outboxEnabled && !"change-stream".equals(fanout);
+        this.lost = Counter.builder("outbox.lost").register(meterRegistry);
+    }
+
+    public <T> T inUnitOfWork(Supplier<T> work) {
+        if (transactionTemplate == null) {
+            return work.get();
+        }
+        return transactionTemplate.execute(status -> work.get());
+    }
+
+    public boolean isTransactional() {
+        return transactionTemplate != null;
+    }
+
+    public void publishTable(TableStatusUpdateEvent event) {
+        if (!enabled) {
+            broadcast(() -> webSocketController.broadcastTableUpdate(event), event.getTableId());
+            return;
+        }
+        OutboxEvent outboxEvent = newEvent(event.getTableId());
+        outboxEvent.setTableEvent(event);
+        insert(outboxEvent);
+    }
+
+    public void publishOrder(OrderUpdateEvent event) {
+        if (!enabled) {
+            broadcast(() -> webSocketController.broadcastOrderUpdate(event), event.getTableId());
+            return;
+        }
+        OutboxEvent outboxEvent = newEvent(event.getTableId());
+        outboxEvent.setOrderEvent(event);
+        insert(outboxEvent);
+    }
+
+    // phát trực tiếp không nằm trong transaction: lỗi phát không được làm hỏng thao tác ghi
+    private void broadcast(Runnable send, String aggregateId) {
+        try {
+            send.run();
+        } catch (RuntimeException e) {
+            lost.increment();
+            log.error("Cannot broadcast event for {}, event dropped", aggregateId, e);
+        }
+    }
+
+    private void insert(OutboxEvent outboxEvent) {
+        if (isTransactional()) {
+            // lỗi làm rollback cả thay đổi đi kèm
+            outboxEventRepository.insert(outboxEvent);
+            return;
+        }
+        try {
+            outboxEventRepository.insert(outboxEvent);
+        } catch (RuntimeException e) {
+            // thay đổi đã được lưu: mất sự kiện còn hơn báo lỗi cho một thao tác đã thành công
+            lost.increment();
+            log.error("Cannot write outbox event for {}, event dropped", outboxEvent.getAggregateId(), e);
+        }
+    }
+
+    private OutboxEvent newEvent(String aggregateId) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setInstanceId(instanceId);
+        outboxEvent.setAggregateId(aggregateId);
+        outboxEvent.setCreatedAt(Instant.now());
+        return outboxEvent;
+    }
+}
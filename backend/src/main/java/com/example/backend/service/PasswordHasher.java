@@ -0,0 +1,121 @@
+package com.example.backend.service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Runs bcrypt on a small dedicated pool instead of the request threads, so a
+ * burst of logins (or a credential-stuffing run) can only occupy this pool
+ * and its bounded queue while table and order requests keep their workers.
+ * When the queue is full the caller gets {@link BusyException} right away;
+ * a hash that has not finished within the wait timeout fails the same way
+ * and is skipped if it has not started yet.
+ */
+@Service
+public class PasswordHasher implements DisposableBean {
+
+    /** The hashing pool is saturated; the request should be retried later. */
+    public static class BusyException extends RuntimeException {
+        public BusyException() {
+            super("Hệ thống đang bận, vui lòng thử lại sau");
+        }
+    }
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration waitTimeout;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Counter rejected;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+            @Value("${app.auth.hash-pool.size:0}") int poolSize,
+            @Value("${app.auth.hash-pool.queue-size:64}") int queueSize,
+            @Value("${app.auth.hash-pool.wait-timeout:5s}") Duration waitTimeout) {
+        this.passwordEncoder = passwordEncoder;
+        this.waitTimeout = waitTimeout;
+
+        // 0: một luồng cho mỗi CPU, bcrypt chỉ tốn CPU
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                Thread.ofPlatform().name("bcrypt-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("auth.hash.latency").tag("op", "encode").register(meterRegistry);
+        this.matchTimer = Timer.builder("auth.hash.latency").tag("op", "match").register(meterRegistry);
+        this.rejected = Counter.builder("auth.hash.rejected").register(meterRegistry);
+        Gauge.builder("auth.hash.queue.depth", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        Gauge.builder("auth.hash.pool.size", executor, ThreadPoolExecutor::getMaximumPoolSize)
+                .register(meterRegistry);
+    }
+
+    public String encode(String rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(matchTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    private <T> T submit(Timer timer, Callable<T> hash) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                // thời gian chờ trong hàng đợi đã quá hạn thì bỏ, người gọi đã nhận lỗi
+                if (System.nanoTime() - submitted > waitTimeout.toNanos()) {
+                    return null;
+                }
+                return timer.recordCallable(hash);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new BusyException();
+        }
+
+        try {
+            T result = future.get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            if (result == null) {
+                throw new BusyException();
+            }
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            rejected.increment();
+            throw new BusyException();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new BusyException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.dto.QueryPlanDto;
+import com.example.backend.model.MenuItem;
+import com.example.backend.model.Order;
+import com.example.backend.model.OutboxEvent;
+import com.example.backend.model.Table;
+import com.example.backend.model.User;
+import com.mongodb.ExplainVerbosity;
+
+/**
+ * Explains the repository queries the application runs, with sample
+ * arguments, and reports whether MongoDB would answer them with a collection
+ * scan or an in-memory sort. The list mirrors the derived finders and the
+ * custom queries of the repositories; keep it in sync when adding one.
+ * findAndModify queries are explained as the equivalent find with limit 1.
+ */
+@Service
+public class QueryPlanService {
+
+    private record Probe(String name, Class<?> entity, Query query) {
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${app.instance-id:local}")
+    private String instanceId;
+
+    public List<QueryPlanDto> explainAll() {
+        String sampleId = new ObjectId().toHexString();
+        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
+
+        List<Probe> probes = List.of(
+                new Probe("UserRepository.findByUsername", User.class,
+                        Query.query(Criteria.where("username").is("admin"))),
+                new Probe("TableRepository.findByStatus", Table.class,
+                        Query.query(Criteria.where("status").is(TableStateMachine.AVAILABLE))),
+                new Probe("TableRepository.findByTableNumber", Table.class,
+                        Query.query(Criteria.where("tableNumber").is(1))),
+                new Probe("TableRepository.transitionStatus", Table.class,
+                        Query.query(Criteria.where("id").is(sampleId)
+                                .and("status").in(TableStateMachine.allowedSources(TableStateMachine.PENDING)))),
+                new Probe("MenuItemRepository.findByAvailableTrue", MenuItem.class,
+                        Query.query(Criteria.where("available").is(true))),
+                new Probe("OrderRepository.findByStatus", Order.class,
+                        Query.query(Criteria.where("status").is("PAID"))),
+                new Probe("OrderRepository.findByStatusInOrderByOrderTimeAsc", Order.class,
+                        Query.query(Criteria.where("status").in(OrderService.ACTIVE_STATUSES))
+                                .with(Sort.by("orderTime"))),
+                new Probe("OrderRepository.findByTable_Id", Order.class,
+                        Query.query(Criteria.where("table.id").is(sampleId))),
+                new Probe("OrderRepository.findByOrderTimeBetween", Order.class,
+                        Query.query(Criteria.where("orderTime").gt(startOfDay).lt(startOfDay.plusDays(1)))),
+                new Probe("OrderRepository.transitionLatestForTable", Order.class,
+                        Query.query(Criteria.where("table.id").is(sampleId)
+                                .and("status").in(OrderService.ACTIVE_STATUSES))
+                                .with(Sort.by(Sort.Direction.DESC, "orderTime")).limit(1)),
+                new Probe("OrderRepository.findPage", Order.class,
+                        new Query(new Criteria().orOperator(
+                                Criteria.where("orderTime").lt(startOfDay),
+                                Criteria.where("orderTime").is(startOfDay).and("id").lt(sampleId)))
+                                .with(Sort.by(Sort.Direction.DESC, "orderTime", "id")).limit(20)),
+                new Probe("OutboxDispatcher.claim", OutboxEvent.class,
+                        OutboxDispatcher.claimableQuery(instanceId, Instant.now(), Duration.ofSeconds(30))
+                                .limit(200)));
+
+        List<QueryPlanDto> plans = new ArrayList<>();
+        for (Probe probe : probes) {
+            plans.add(explain(probe));
+        }
+        return plans;
+    }
+
+    private QueryPlanDto explain(Probe probe) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(probe.entity());
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        Document filter = queryMapper.getMappedObject(probe.query().getQueryObject(), entity);
+        Document sort = queryMapper.getMappedSort(probe.query().getSortObject(), entity);
+
+        var find = mongoTemplate.getCollection(entity.getCollection()).find(filter).sort(sort);
+        if (probe.query().getLimit() > 0) {
+            find = find.limit(probe.query().getLimit());
+        }
+        Document explain = find.explain(ExplainVerbosity.QUERY_PLANNER);
+
+        List<String> stages = new ArrayList<>();
+        List<String> indexes = new ArrayList<>();
+        Object winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan");
+        collectStages(winningPlan, stages, indexes);
+
+        return QueryPlanDto.builder()
+                .query(probe.name())
+                .collection(entity.getCollection())
+                .filter(filter.toJson())
+                .sort(sort.isEmpty() ? null : sort.toJson())
+                .stages(stages)
+                .indexes(indexes)
+                .collectionScan(stages.contains("COLLSCAN"))
+                .inMemorySort(stages.contains("SORT"))
+                .build();
+    }
+
+    // winning plan lồng nhau (inputStage, inputStages, queryPlan với SBE), duyệt hết
+    private static void collectStages(Object node, List<String> stages, List<String> indexes) {
+        if (node instanceof Document document) {
+            if (document.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            if (document.get("indexName") instanceof String indexName) {
+                indexes.add(indexName);
+            }
+            for (Object value : document.values()) {
+                collectStages(value, stages, indexes);
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object value : list) {
+                collectStages(value, stages, indexes);
+            }
+        }
+    }
+}
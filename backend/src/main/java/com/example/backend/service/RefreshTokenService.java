@@ -0,0 +1,161 @@
+package com.example.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.model.RefreshToken;
+import com.example.backend.model.User;
+import com.example.backend.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Issues, rotates and revokes refresh tokens. Rotation deletes the presented
+ * token with a single findAndRemove before the replacement is issued, so a
+ * token can be exchanged only once even when two refreshes race. The
+ * replacement keeps the family's absolute expiry, and the user is read again
+ * on every rotation: a deleted user or a changed role ends all of the user's
+ * sessions. Saves and deletes of users on this instance revoke the tokens
+ * right away through the mapping events.
+ */
+@Service
+public class RefreshTokenService extends AbstractMongoEventListener<User> {
+
+    public record Rotation(User user, String token, Date expiresAt) {
+    }
+
+    /** The token is unknown, already used, revoked or expired; the user must log in again. */
+    public static class InvalidTokenException extends RuntimeException {
+        public InvalidTokenException() {
+            super("Phiên đăng nhập đã hết hạn, vui lòng đăng nhập lại");
+        }
+    }
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+    private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+    private final long refreshExpiration;
+    private final Counter rotated;
+    private final Counter rejected;
+
+    public RefreshTokenService(MongoTemplate mongoTemplate, UserRepository userRepository,
+            MeterRegistry meterRegistry, @Value("${app.jwt.refresh-expiration}") long refreshExpiration) {
+        this.mongoTemplate = mongoTemplate;
+        this.userRepository = userRepository;
+        this.refreshExpiration = refreshExpiration;
+        this.rotated = Counter.builder("auth.refresh").tag("result", "rotated").register(meterRegistry);
+        this.rejected = Counter.builder("auth.refresh").tag("result", "rejected").register(meterRegistry);
+    }
+
+    /** Starts a new token family for a fresh login. */
+    public String issue(User user) {
+        Date now = new Date();
+        return issue(user, UUID.randomUUID().toString(), now, new Date(now.getTime() + refreshExpiration));
+    }
+
+    /**
+     * Consumes the token and issues its replacement in the same family, with
+     * the current user data. Throws {@link InvalidTokenException} if the
+     * token is unknown, already used, revoked or expired, or if the user is
+     * gone or has another role now.
+     */
+    public Rotation rotate(String token) {
+        RefreshToken previous = token == null ? null : mongoTemplate.findAndRemove(
+                Query.query(Criteria.where("_id").is(hash(token)).and("expiresAt").gt(new Date())),
+                RefreshToken.class);
+        if (previous == null) {
+            rejected.increment();
+            throw new InvalidTokenException();
+        }
+
+        User user = userRepository.findById(previous.getUserId()).orElse(null);
+        if (user == null || !Objects.equals(user.getRole(), previous.getRole())) {
+            revokeAll(previous.getUserId());
+            rejected.increment();
+            throw new InvalidTokenException();
+        }
+
+        rotated.increment();
+        String replacement = issue(user, previous.getFamilyId(), previous.getFamilyIssuedAt(),
+                previous.getExpiresAt());
+        return new Rotation(user, replacement, previous.getExpiresAt());
+    }
+
+    public void revoke(String token) {
+        if (token != null) {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(hash(token))), RefreshToken.class);
+        }
+    }
+
+    /** Ends every session of the user. */
+    public void revokeAll(String userId) {
+        if (userId != null) {
+            mongoTemplate.remove(Query.query(Criteria.where("userId").is(userId)), RefreshToken.class);
+        }
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<User> event) {
+        User user = event.getSource();
+        // đổi role: thu hồi các token cấp với role cũ
+        if (user.getId() != null) {
+            mongoTemplate.remove(Query.query(Criteria.where("userId").is(user.getId())
+                    .and("role").ne(user.getRole())), RefreshToken.class);
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<User> event) {
+        Object id = event.getSource().get("_id");
+        if (id instanceof String || id instanceof ObjectId) {
+            revokeAll(id.toString());
+        }
+        // xóa theo điều kiện khác: rotate sẽ không tìm thấy user và thu hồi khi token được dùng
+    }
+
+    private String issue(User user, String familyId, Date familyIssuedAt, Date expiresAt) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setId(hash(token));
+        refreshToken.setUserId(user.getId());
+        refreshToken.setUsername(user.getUsername());
+        refreshToken.setRole(user.getRole());
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setFamilyIssuedAt(familyIssuedAt);
+        refreshToken.setExpiresAt(expiresAt);
+        mongoTemplate.insert(refreshToken);
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
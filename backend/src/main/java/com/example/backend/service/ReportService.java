@@ -1,64 +1,281 @@
 package com.example.backend.service;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators.Timezone;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import com.example.backend.dto.AverageTicketDto;
+import com.example.backend.dto.CategoryRevenueDto;
+import com.example.backend.dto.HourlyRevenueDto;
 import com.example.backend.dto.ReportResponse;
+import com.example.backend.dto.TopItemDto;
+import com.example.backend.model.DailyRollup;
 import com.example.backend.model.Order;
+import com.example.backend.repository.DailyRollupRepository;
 import com.example.backend.repository.OrderRepository;
+import com.mongodb.client.result.UpdateResult;
 
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
 @Service
+@Timed("app.service")
 public class ReportService {
 
+    // backfill bị gián đoạn (instance chết giữa chừng) quá thời gian này thì được chạy lại
+    private static final Duration BACKFILL_TIMEOUT = Duration.ofMinutes(5);
+
     @Autowired
     private OrderRepository orderRepository;
 
-    public ReportResponse getTodayReport() {
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfDay = LocalDate.now().atTime(23, 59, 59);
+    @Autowired
+    private DailyRollupRepository dailyRollupRepository;
 
-        return generateReport(startOfDay, endOfDay);
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public ReportResponse getTodayReport() {
+        return getReport(LocalDate.now());
     }
 
     public ReportResponse getReportByDate(String dateStr) {
-        LocalDate date = LocalDate.parse(dateStr, DateTimeFormatter.ISO_DATE);
+        return getReport(LocalDate.parse(dateStr, DateTimeFormatter.ISO_DATE));
+    }
+
+    // Các thống kê bên dưới chỉ tính đơn đã thanh toán, giống báo cáo ngày
+
+    public List<HourlyRevenueDto> getRevenueByHour(String dateStr) {
+        TypedAggregation<Order> aggregation = Aggregation.newAggregation(Order.class,
+                Aggregation.match(paidOrdersOn(dateStr)),
+                Aggregation.project("totalAmount")
+                        .and(DateOperators.dateOf("orderTime")
+                                .withTimezone(Timezone.fromZone(ZoneId.systemDefault()))
+                                .hour())
+                        .as("hour"),
+                Aggregation.group("hour").sum("totalAmount").as("revenue").count().as("orders"),
+                Aggregation.project("revenue", "orders").and("hour").previousOperation(),
+                Aggregation.sort(Sort.Direction.ASC, "hour"));
+        return mongoTemplate.aggregate(aggregation, HourlyRevenueDto.class).getMappedResults();
+    }
+
+    public List<CategoryRevenueDto> getRevenueByCategory(String dateStr) {
+        TypedAggregation<Order> aggregation = Aggregation.newAggregation(Order.class,
+                Aggregation.match(paidOrdersOn(dateStr)),
+                Aggregation.unwind("items"),
+                Aggregation.group("items.category")
+                        .sum("items.subtotal").as("revenue")
+                        .sum("items.quantity").as("quantity"),
+                Aggregation.project("revenue", "quantity").and("category").previousOperation(),
+                Aggregation.sort(Sort.Direction.DESC, "revenue"));
+        return mongoTemplate.aggregate(aggregation, CategoryRevenueDto.class).getMappedResults();
+    }
+
+    public List<TopItemDto> getTopItems(String dateStr, int limit) {
+        TypedAggregation<Order> aggregation = Aggregation.newAggregation(Order.class,
+                Aggregation.match(paidOrdersOn(dateStr)),
+                Aggregation.unwind("items"),
+                Aggregation.group("items.menuItemId")
+                        .first("items.name").as("name")
+                        .sum("items.quantity").as("quantity")
+                        .sum("items.subtotal").as("revenue"),
+                Aggregation.sort(Sort.Direction.DESC, "quantity"),
+                Aggregation.limit(limit),
+                Aggregation.project("name", "quantity", "revenue").and("menuItemId").previousOperation());
+        return mongoTemplate.aggregate(aggregation, TopItemDto.class).getMappedResults();
+    }
+
+    public AverageTicketDto getAverageTicket(String dateStr) {
+        TypedAggregation<Order> aggregation = Aggregation.newAggregation(Order.class,
+                Aggregation.match(paidOrdersOn(dateStr)),
+                Aggregation.group()
+                        .count().as("orders")
+                        .sum("totalAmount").as("revenue")
+                        .avg("totalAmount").as("averageTicket"),
+                Aggregation.project("orders", "revenue", "averageTicket").andExclude("_id"));
+
+        AverageTicketDto result = mongoTemplate.aggregate(aggregation, AverageTicketDto.class).getUniqueMappedResult();
+        if (result == null) {
+            result = new AverageTicketDto();
+            result.setOrders(0L);
+            result.setRevenue(0.0);
+            result.setAverageTicket(0.0);
+        }
+        return result;
+    }
+
+    private static Criteria paidOrdersOn(String dateStr) {
+        LocalDate date = dateStr != null ? LocalDate.parse(dateStr, DateTimeFormatter.ISO_DATE) : LocalDate.now();
+        return Criteria.where("orderTime").gte(date.atStartOfDay()).lt(date.plusDays(1).atStartOfDay())
+                .and("status").is("PAID");
+    }
+
+    public void recordOrderCreated(Order order) {
+        Update update = new Update()
+                .inc("totalOrders", 1)
+                .addToSet("customerIds", order.getUser().getId());
+        updateRollup(order, order.getOrderTime(), update);
+    }
+
+    public void recordOrderCompleted(Order order) {
+        Update update = new Update()
+                .inc("completedOrders", 1)
+                .inc("totalRevenue", order.getTotalAmount());
+        updateRollup(order, order.getPaidTime() != null ? order.getPaidTime() : LocalDateTime.now(), update);
+    }
+
+    /**
+     * Adds a live event to the day's rollup, but only if the rollup's backfill
+     * started at or before the event; earlier events are counted by the
+     * backfill scan. A day without a rollup is left alone, its first report
+     * builds it from the orders.
+     */
+    private void updateRollup(Order order, LocalDateTime eventTime, Update update) {
+        String day = order.getOrderTime().toLocalDate().toString();
+        try {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(day).and("since").lte(eventTime)),
+                    update, DailyRollup.class);
+        } catch (RuntimeException e) {
+            // Không làm hỏng thao tác đặt/thanh toán chỉ vì lỗi thống kê
+            log.error("Cannot update daily rollup {} for order {}", day, order.getId(), e);
+        }
+    }
+
+    private ReportResponse getReport(LocalDate date) {
         LocalDateTime startOfDay = date.atStartOfDay();
         LocalDateTime endOfDay = date.atTime(23, 59, 59);
 
-        return generateReport(startOfDay, endOfDay);
+        DailyRollup rollup = dailyRollupRepository.findById(date.toString())
+                .filter(rollup -> Boolean.TRUE.equals(rollup.getComplete()))
+                .orElseGet(() -> backfill(date));
+        return toReport(rollup, startOfDay, endOfDay);
+    }
+
+    /**
+     * Builds the rollup of a day that has no complete one yet: days from
+     * before rollups existed, days whose first event came before any report,
+     * and interrupted backfills. The rollup is first reset with
+     * {@code since = now}, so live events from then on are counted by
+     * {@link #updateRollup}; the orders written before {@code since} are then
+     * scanned and added, and the rollup is marked complete. Each order or
+     * payment is therefore counted exactly once, up to clock skew between
+     * instances and orders still being written while the scan runs. If
+     * another request is already backfilling the day, the report is computed
+     * from the orders without storing anything.
+     */
+    private DailyRollup backfill(LocalDate date) {
+        LocalDateTime start = date.atStartOfDay();
+        LocalDateTime end = date.plusDays(1).atStartOfDay();
+        LocalDateTime since = LocalDateTime.now();
+        if (!start.isBefore(since)) {
+            // ngày chưa tới: chưa có đơn nào
+            DailyRollup empty = new DailyRollup();
+            empty.setId(date.toString());
+            return empty;
+        }
+
+        boolean claimed = startBackfill(date.toString(), since);
+        DailyRollup scanned = summarize(orderRepository.findByOrderTimeBetween(start, end), since);
+        scanned.setId(date.toString());
+        if (!claimed) {
+            return scanned;
+        }
+
+        Update update = new Update()
+                .inc("totalOrders", scanned.getTotalOrders())
+                .inc("completedOrders", scanned.getCompletedOrders())
+                .inc("totalRevenue", scanned.getTotalRevenue())
+                .set("complete", true);
+        if (!scanned.getCustomerIds().isEmpty()) {
+            update.addToSet("customerIds").each(scanned.getCustomerIds().toArray());
+        }
+        DailyRollup completed = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(date.toString()).and("since").is(since)), update,
+                FindAndModifyOptions.options().returnNew(true), DailyRollup.class);
+        return completed != null ? completed : scanned;
     }
 
-    private ReportResponse generateReport(LocalDateTime start, LocalDateTime end) {
-        List<Order> orders = orderRepository.findByOrderTimeBetween(start, end);
+    /**
+     * Resets the day's counters and sets {@code since}, unless the rollup is
+     * complete or another backfill started less than BACKFILL_TIMEOUT ago.
+     */
+    private boolean startBackfill(String day, LocalDateTime since) {
+        Query query = Query.query(Criteria.where("id").is(day).and("complete").ne(true)
+                .orOperator(
+                        Criteria.where("since").exists(false),
+                        Criteria.where("since").is(null),
+                        Criteria.where("since").lt(since.minus(BACKFILL_TIMEOUT))));
+        Update update = new Update()
+                .set("since", since)
+                .set("totalOrders", 0L)
+                .set("completedOrders", 0L)
+                .set("totalRevenue", 0.0)
+                .set("customerIds", List.of())
+                .set("complete", false);
+        try {
+            UpdateResult result = mongoTemplate.upsert(query, update, DailyRollup.class);
+            return result.getMatchedCount() > 0 || result.getUpsertedId() != null;
+        } catch (DuplicateKeyException e) {
+            // rollup đã có (đã hoàn tất hoặc đang được backfill ở request khác)
+            return false;
+        }
+    }
 
-        long totalCustomers = orders.stream()
-                .map(order -> order.getUser().getId())
-                .distinct()
-                .count();
+    /**
+     * Counts the orders and payments that happened before {@code since};
+     * later ones are added to the rollup live.
+     */
+    static DailyRollup summarize(List<Order> orders, LocalDateTime since) {
+        DailyRollup rollup = new DailyRollup();
+        long totalOrders = 0;
+        long completedOrders = 0;
+        double totalRevenue = 0.0;
 
-        double totalRevenue = orders.stream()
-                .filter(order -> "PAID".equals(order.getStatus()))
-                .mapToDouble(Order::getTotalAmount)
-                .sum();
+        for (Order order : orders) {
+            if (!order.getOrderTime().isBefore(since)) {
+                continue;
+            }
+            totalOrders++;
+            rollup.getCustomerIds().add(order.getUser().getId());
+            if ("PAID".equals(order.getStatus())
+                    && (order.getPaidTime() == null || order.getPaidTime().isBefore(since))) {
+                completedOrders++;
+                totalRevenue += order.getTotalAmount();
+            }
+        }
 
-        long totalOrders = orders.size();
-        long completedOrders = orders.stream()
-                .filter(order -> "PAID".equals(order.getStatus()))
-                .count();
+        rollup.setTotalOrders(totalOrders);
+        rollup.setCompletedOrders(completedOrders);
+        rollup.setTotalRevenue(totalRevenue);
+        return rollup;
+    }
 
+    static ReportResponse toReport(DailyRollup rollup, LocalDateTime start, LocalDateTime end) {
         ReportResponse response = new ReportResponse();
-        response.setTotalCustomers(totalCustomers);
-        response.setTotalRevenue(totalRevenue);
-        response.setTotalOrders(totalOrders);
-        response.setCompletedOrders(completedOrders);
+        response.setTotalCustomers((long) rollup.getCustomerIds().size());
+        response.setTotalRevenue(rollup.getTotalRevenue());
+        response.setTotalOrders(rollup.getTotalOrders());
+        response.setCompletedOrders(rollup.getCompletedOrders());
         response.setStartDate(start);
         response.setEndDate(end);
 
         return response;
     }
-}
\ No newline at end of file
+}
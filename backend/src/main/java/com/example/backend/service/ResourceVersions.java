@@ -0,0 +1,85 @@
+package com.example.backend.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Version counters behind the ETags of the table and menu lists; the menu
+ * version is the {@link MenuCatalog} snapshot version. Tags carry an epoch
+ * taken at startup, so a restarted instance never answers 304 to a tag
+ * handed out before the restart.
+ *
+ * Who moves the table counter depends on app.websocket.fanout. With local
+ * fan-out (a single instance) every table write in TableService and
+ * OrderService bumps it. With change-stream fan-out only
+ * {@link ChangeStreamRelay} does, once per change of any instance, so a
+ * write is counted exactly once. Until the relay has delivered a local write
+ * the old tag would still match, so for app.etag.relay-grace after a local
+ * table write {@link #tablesSettled()} is false and the lists skip the 304.
+ *
+ * Read the version before loading the data it tags: a write that lands in
+ * between then only makes the tag older than the body, never newer.
+ */
+@Component
+public class ResourceVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong tables = new AtomicLong();
+    private final boolean relayed;
+    private final long relayGraceNanos;
+    private volatile long lastLocalTableWrite;
+
+    public ResourceVersions(@Value("${app.websocket.fanout:local}") String fanout,
+            @Value("${app.etag.relay-grace:2s}") Duration relayGrace) {
+        this.relayed = "change-stream".equals(fanout);
+        this.relayGraceNanos = relayGrace.toNanos();
+        this.lastLocalTableWrite = System.nanoTime() - relayGraceNanos;
+    }
+
+    public long tablesVersion() {
+        return tables.get();
+    }
+
+    /** Called by the services after a table write of this instance. */
+    public void bumpTables() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // trong transaction: chỉ đổi version khi dữ liệu mới đã đọc được
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    localTableWrite();
+                }
+            });
+            return;
+        }
+        localTableWrite();
+    }
+
+    /** Called by {@link ChangeStreamRelay} for every change of the tables collection. */
+    public void tablesChanged() {
+        tables.incrementAndGet();
+    }
+
+    /** False while a local table write may not have reached the change stream yet. */
+    public boolean tablesSettled() {
+        return !relayed || System.nanoTime() - lastLocalTableWrite >= relayGraceNanos;
+    }
+
+    private void localTableWrite() {
+        if (relayed) {
+            // relay sẽ tăng version khi nhận được thay đổi này
+            lastLocalTableWrite = System.nanoTime();
+        } else {
+            tables.incrementAndGet();
+        }
+    }
+
+    public String etag(String resource, long version) {
+        return "\"" + resource + "-" + epoch + "-" + version + "\"";
+    }
+}
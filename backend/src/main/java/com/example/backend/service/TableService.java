@@ -1,23 +1,30 @@
 package com.example.backend.service;
 
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
-import com.example.backend.controller.WebSocketController;
 import com.example.backend.dto.TableStatusUpdateEvent;
 import com.example.backend.model.Table;
 import com.example.backend.repository.TableRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 @Service
+@Timed("app.service")
 public class TableService {
 
     @Autowired
     private TableRepository tableRepository;
 
     @Autowired
-    private WebSocketController webSocketController;
+    private OutboxService outboxService;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
 
     public List<Table> getAllTables() {
         return tableRepository.findAll();
@@ -32,72 +39,103 @@ public class TableService {
             throw new RuntimeException("Số bàn đã tồn tại");
         }
         table.setStatus("AVAILABLE");
-        Table savedTable = tableRepository.save(table);
-
-        TableStatusUpdateEvent event = new TableStatusUpdateEvent(
-                savedTable.getId(),
-                savedTable.getTableNumber(),
-                savedTable.getStatus(),
-                savedTable.getSeats(),
-                "CREATE");
-        webSocketController.broadcastTableUpdate(event);
-        return savedTable;
+        return outboxService.inUnitOfWork(() -> {
+            Table savedTable = tableRepository.save(table);
+            resourceVersions.bumpTables();
+
+            TableStatusUpdateEvent event = new TableStatusUpdateEvent(
+                    "CREATE",
+                    savedTable.getTableNumber(),
+                    savedTable.getId(),
+                    savedTable.getSeats(),
+                    savedTable.getStatus());
+            outboxService.publishTable(event);
+            return savedTable;
+        });
     }
 
     public Table updateTable(String id, Table table) {
         Table existing = tableRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy bàn"));
 
-        String oldStatus = existing.getStatus();
-        existing.setTableNumber(table.getTableNumber());
-        existing.setSeats(table.getSeats());
-        existing.setStatus(table.getStatus());
-
-        Table savedTable = tableRepository.save(existing);
-
-        if (!oldStatus.equals(table.getStatus())) {
+        // chỉ đi qua state machine khi admin thực sự đổi trạng thái
+        String toStatus = table.getStatus() != null && !table.getStatus().equals(existing.getStatus())
+                ? table.getStatus()
+                : null;
+        Set<String> fromStatuses = toStatus != null ? allowedSources(toStatus) : null;
+
+        return outboxService.inUnitOfWork(() -> {
+            Table savedTable;
+            try {
+                savedTable = tableRepository.updateDetails(id, table.getTableNumber(), table.getSeats(),
+                        fromStatuses, toStatus)
+                        .orElseThrow(() -> conflict(id, toStatus));
+            } catch (DuplicateKeyException e) {
+                throw new RuntimeException("Số bàn đã tồn tại");
+            }
+            resourceVersions.bumpTables();
+
+            // số bàn, số ghế cũng nằm trong snapshot của LiveStateStore: phát cả khi status không đổi
             TableStatusUpdateEvent event = new TableStatusUpdateEvent(
-                    savedTable.getId(),
+                    "UPDATE",
                     savedTable.getTableNumber(),
-                    savedTable.getStatus(),
+                    savedTable.getId(),
                     savedTable.getSeats(),
-                    "UPDATE");
-            webSocketController.broadcastTableUpdate(event);
-        }
-
-        return savedTable;
+                    savedTable.getStatus());
+            outboxService.publishTable(event);
+            return savedTable;
+        });
     }
 
     public Table updateTableStatus(String id, String status) {
-        Table table = tableRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Không tìm thấy bàn"));
-
-        table.setStatus(status);
-        Table savedTable = tableRepository.save(table);
-
-        TableStatusUpdateEvent event = new TableStatusUpdateEvent(
-                savedTable.getId(),
-                savedTable.getTableNumber(),
-                savedTable.getStatus(),
-                savedTable.getSeats(),
-                "UPDATE");
-        webSocketController.broadcastTableUpdate(event);
+        Set<String> fromStatuses = allowedSources(status);
+        return outboxService.inUnitOfWork(() -> {
+            Table savedTable = tableRepository
+                    .transitionStatus(id, fromStatuses, status)
+                    .orElseThrow(() -> conflict(id, status));
+            resourceVersions.bumpTables();
 
-        return savedTable;
+            TableStatusUpdateEvent event = new TableStatusUpdateEvent(
+                    "UPDATE",
+                    savedTable.getTableNumber(),
+                    savedTable.getId(),
+                    savedTable.getSeats(),
+                    savedTable.getStatus());
+            outboxService.publishTable(event);
+            return savedTable;
+        });
     }
 
     public void deleteTable(String id) {
         Table table = tableRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy bàn"));
 
-        tableRepository.deleteById(id);
+        outboxService.inUnitOfWork(() -> {
+            tableRepository.deleteById(id);
+            resourceVersions.bumpTables();
+
+            TableStatusUpdateEvent event = new TableStatusUpdateEvent(
+                    "DELETE",
+                    table.getTableNumber(),
+                    table.getId(),
+                    table.getSeats(),
+                    table.getStatus());
+            outboxService.publishTable(event);
+            return null;
+        });
+    }
+
+    // trạng thái lạ (vd. PAID từ bản admin cũ) cũng là lỗi 400 như chuyển trạng thái không hợp lệ
+    private static Set<String> allowedSources(String status) {
+        if (!TableStateMachine.isKnown(status)) {
+            throw new RuntimeException("Không thể chuyển bàn sang trạng thái " + status);
+        }
+        return TableStateMachine.allowedSources(status);
+    }
 
-        TableStatusUpdateEvent event = new TableStatusUpdateEvent(
-                table.getId(),
-                table.getTableNumber(),
-                table.getStatus(),
-                table.getSeats(),
-                "DELETE");
-        webSocketController.broadcastTableUpdate(event);
+    private RuntimeException conflict(String id, String status) {
+        return new RuntimeException(tableRepository.existsById(id)
+                ? "Không thể chuyển bàn sang trạng thái " + status
+                : "Không tìm thấy bàn");
     }
 }
@@ -0,0 +1,46 @@
+package com.example.backend.service;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Allowed table status transitions. Each target status maps to the statuses a
+ * table may currently be in for the transition to succeed; the repository
+ * applies the check and the update as one conditional write. There are no
+ * self-loops, so a repeated booking, check-in or release is reported as a
+ * conflict instead of succeeding silently.
+ */
+public final class TableStateMachine {
+
+    public static final String AVAILABLE = "AVAILABLE";
+    public static final String PENDING = "PENDING";
+    public static final String OCCUPIED = "OCCUPIED";
+
+    private static final Map<String, Set<String>> SOURCES = Map.of(
+            // đặt bàn: chỉ khi bàn còn trống
+            PENDING, Set.of(AVAILABLE),
+            // xác nhận đơn hoặc khách vãng lai check-in
+            OCCUPIED, Set.of(AVAILABLE, PENDING),
+            // thanh toán, hủy giữ bàn hoặc dọn bàn
+            AVAILABLE, Set.of(PENDING, OCCUPIED));
+
+    private TableStateMachine() {
+    }
+
+    public static Set<String> allowedSources(String target) {
+        Set<String> sources = SOURCES.get(target);
+        if (sources == null) {
+            throw new IllegalArgumentException("Trạng thái bàn không hợp lệ: " + target);
+        }
+        return sources;
+    }
+
+    public static boolean isKnown(String status) {
+        return status != null && SOURCES.containsKey(status);
+    }
+
+    public static boolean canTransition(String from, String to) {
+        Set<String> sources = SOURCES.get(to);
+        return sources != null && sources.contains(from);
+    }
+}
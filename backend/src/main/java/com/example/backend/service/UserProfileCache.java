@@ -0,0 +1,79 @@
+package com.example.backend.service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+import com.example.backend.model.User;
+import com.example.backend.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded cache of user documents keyed by id, the userId claim of the
+ * access token. Any save or delete of a user through the repository or
+ * MongoTemplate evicts the entry on this instance; writes made by other
+ * instances become visible once the entry expires. Cached users are shared
+ * between requests and must be treated as read-only.
+ * Hit/miss/eviction counts are published as cache.* metrics with
+ * cache=users.profile.
+ */
+@Component
+public class UserProfileCache extends AbstractMongoEventListener<User> {
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> users;
+
+    public UserProfileCache(UserRepository userRepository, MeterRegistry meterRegistry,
+            @Value("${app.users.cache-size:10000}") long cacheSize,
+            @Value("${app.users.cache-ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users.profile");
+    }
+
+    public Optional<User> findById(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        // user không tồn tại thì không được cache, lần sau đọc lại từ MongoDB
+        return Optional.ofNullable(users.get(id, key -> userRepository.findById(key).orElse(null)));
+    }
+
+    public void invalidate(String id) {
+        if (id != null) {
+            users.invalidate(id);
+        }
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<User> event) {
+        invalidate(event.getSource().getId());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<User> event) {
+        Document query = event.getSource();
+        Object id = query.get("_id");
+        if (id instanceof String || id instanceof ObjectId) {
+            invalidate(id.toString());
+        } else {
+            // xóa theo điều kiện khác _id: không biết user nào, xóa hết
+            users.invalidateAll();
+        }
+    }
+}
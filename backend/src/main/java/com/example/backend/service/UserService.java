@@ -4,7 +4,6 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.example.backend.dto.LoginRequest;
@@ -20,11 +19,14 @@ public class UserService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     public User register(RegisterRequest request) {
         if (userRepository.findByUsername(request.getUsername()).isPresent()) {
             throw new RuntimeException("Tên đăng nhập đã tồn tại");
@@ -32,7 +34,7 @@ public class UserService {
 
         User user = new User();
         user.setUsername(request.getUsername());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHasher.encode(request.getPassword()));
         user.setFullName(request.getFullName());
         user.setPhone(request.getPhone());
         user.setRole("USER");
@@ -48,7 +50,7 @@ public class UserService {
         User user = userRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> new RuntimeException("Tên đăng nhập hoặc mật khẩu không đúng"));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
             throw new RuntimeException("Tên đăng nhập hoặc mật khẩu không đúng");
         }
 
@@ -57,6 +59,27 @@ public class UserService {
         Map<String, Object> response = new HashMap<>();
         response.put("user", user);
         response.put("token", jwtToken);
+        response.put("refreshToken", refreshTokenService.issue(user));
         return response;
     }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh
+     * token of the same family. The password is not checked; the user is
+     * read again so the access token carries the current role.
+     */
+    public Map<String, Object> refresh(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        User user = rotation.user();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("token", jwtUtils.generateJwtToken(user.getUsername(), user.getRole(), user.getId()));
+        response.put("refreshToken", rotation.token());
+        response.put("refreshExpiresAt", rotation.expiresAt());
+        return response;
+    }
+
+    public void logout(String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
+    }
 }
@@ -60,9 +60,15 @@ public class DtoMapper {
         if (orderItem == null)
             return null;
 
+        MenuItemResponseDto menuItem = MenuItemResponseDto.builder()
+                .id(orderItem.getMenuItemId())
+                .name(orderItem.getName())
+                .price(orderItem.getPrice())
+                .category(orderItem.getCategory())
+                .build();
+
         return OrderItemResponseDto.builder()
-                .id(orderItem.getId())
-                .menuItem(toMenuItemResponseDto(orderItem.getMenuItem()))
+                .menuItem(menuItem)
                 .quantity(orderItem.getQuantity())
                 .price(orderItem.getPrice())
                 .subtotal(orderItem.getSubtotal())
@@ -0,0 +1,16 @@
+package com.example.backend.util;
+
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * Claims of a verified access token, used as the authentication principal so
+ * controllers can read the user id and role without parsing the token again.
+ */
+public record JwtPrincipal(String username, String role, String userId, Instant expiresAt) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
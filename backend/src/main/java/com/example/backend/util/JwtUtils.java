@@ -1,21 +1,36 @@
 package com.example.backend.util;
 
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import javax.crypto.SecretKey;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Component
 public class JwtUtils {
 
@@ -25,8 +40,53 @@ public class JwtUtils {
     @Value("${app.jwt.expiration}")
     private Long jwtExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${app.jwt.verified-cache-size:10000}")
+    private long verifiedCacheSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    // token đã kiểm tra chữ ký, tự hết hạn cùng lúc với token
+    private Cache<String, JwtPrincipal> verifiedTokens;
+
+    private Timer cachedValidation;
+    private Timer verifiedValidation;
+    private Timer rejectedValidation;
+
+    @PostConstruct
+    void init() {
+        cachedValidation = Timer.builder("jwt.validation").tag("result", "cached").register(meterRegistry);
+        verifiedValidation = Timer.builder("jwt.validation").tag("result", "verified").register(meterRegistry);
+        rejectedValidation = Timer.builder("jwt.validation").tag("result", "rejected").register(meterRegistry);
+
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parser().verifyWith(signingKey).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, JwtPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String token, JwtPrincipal principal, long currentTime) {
+                        long remainingMillis = principal.expiresAt().toEpochMilli() - System.currentTimeMillis();
+                        return Math.max(0, remainingMillis) * 1_000_000;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, JwtPrincipal principal, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, JwtPrincipal principal, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String generateJwtToken(String username, String role, String userId) {
@@ -39,55 +99,75 @@ public class JwtUtils {
                 .subject(username)
                 .issuedAt(new Date())
                 .expiration(new Date((new Date()).getTime() + jwtExpiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String getUsernameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
-    }
+    /**
+     * Verifies the token once and returns its claims, or null if the token is
+     * invalid or expired. Tokens verified before are answered from a bounded
+     * cache without repeating the HMAC check.
+     */
+    public JwtPrincipal parseJwtToken(String token) {
+        long started = System.nanoTime();
+        JwtPrincipal cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            cachedValidation.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return cached;
+        }
 
-    public String getRoleFromJwtToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.get("role", String.class);
+        JwtPrincipal principal = verifyJwtToken(token);
+        if (principal != null) {
+            verifiedTokens.put(token, principal);
+        }
+        (principal != null ? verifiedValidation : rejectedValidation)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return principal;
     }
 
-   public String getUserIdFromJwtToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.get("userId", String.class);
-}
-
-    public boolean validateJwtToken(String authToken) {
+    JwtPrincipal verifyJwtToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            Instant expiresAt = claims.getExpiration() != null
+                    ? claims.getExpiration().toInstant()
+                    : Instant.now();
+            return new JwtPrincipal(
+                    claims.getSubject(),
+                    claims.get("role", String.class),
+                    claims.get("userId", String.class),
+                    expiresAt);
         } catch (SecurityException e) {
-            System.err.println("Invalid JWT signature: " + e.getMessage());
+            log.debug("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
-            System.err.println("Invalid JWT token: " + e.getMessage());
+            log.debug("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
-            System.err.println("JWT token is expired: " + e.getMessage());
+            log.debug("JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
-            System.err.println("JWT token is unsupported: " + e.getMessage());
+            log.debug("JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
-            System.err.println("JWT claims string is empty: " + e.getMessage());
+            log.debug("JWT claims string is empty: {}", e.getMessage());
+        } catch (JwtException e) {
+            log.debug("JWT token is invalid: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    public String getUsernameFromJwtToken(String token) {
+        JwtPrincipal principal = parseJwtToken(token);
+        return principal != null ? principal.username() : null;
+    }
+
+    public String getRoleFromJwtToken(String token) {
+        JwtPrincipal principal = parseJwtToken(token);
+        return principal != null ? principal.role() : null;
+    }
+
+    public String getUserIdFromJwtToken(String token) {
+        JwtPrincipal principal = parseJwtToken(token);
+        return principal != null ? principal.userId() : null;
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return parseJwtToken(authToken) != null;
     }
 }
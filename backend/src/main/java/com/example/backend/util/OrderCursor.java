@@ -0,0 +1,33 @@
+package com.example.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import com.example.backend.model.Order;
+
+/**
+ * Opaque keyset cursor for order listings sorted by (orderTime, id) descending.
+ * Encoded as URL-safe base64 of "orderTime|id".
+ */
+public record OrderCursor(LocalDateTime orderTime, String id) {
+
+    public static OrderCursor of(Order order) {
+        return new OrderCursor(order.getOrderTime(), order.getId());
+    }
+
+    public String encode() {
+        String raw = orderTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor không hợp lệ", e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.backend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+
+import com.example.backend.model.Table;
+import com.example.backend.service.TableStateMachine;
+
+/**
+ * Contention benchmark for the conditional table transition: many clients try
+ * to book the same table at once and exactly one of them may win each round.
+ */
+@DataMongoTest
+class TableTransitionContentionTest {
+
+	private static final int CLIENTS = 32;
+	private static final int ROUNDS = 50;
+
+	@Autowired
+	private TableRepository tableRepository;
+
+	@Test
+	void onlyOneConcurrentBookingWinsEachRound() throws Exception {
+		Table table = new Table();
+		table.setTableNumber(1);
+		table.setSeats(4);
+		String tableId = tableRepository.save(table).getId();
+
+		ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+		long started = System.nanoTime();
+		try {
+			for (int round = 0; round < ROUNDS; round++) {
+				CountDownLatch start = new CountDownLatch(1);
+				List<Future<Boolean>> attempts = new ArrayList<>();
+				for (int i = 0; i < CLIENTS; i++) {
+					attempts.add(pool.submit(() -> {
+						start.await();
+						return tableRepository.transitionStatus(tableId,
+								TableStateMachine.allowedSources(TableStateMachine.PENDING),
+								TableStateMachine.PENDING).isPresent();
+					}));
+				}
+				start.countDown();
+
+				int winners = 0;
+				for (Future<Boolean> attempt : attempts) {
+					if (attempt.get()) {
+						winners++;
+					}
+				}
+				assertEquals(1, winners, "round " + round);
+
+				tableRepository.transitionStatus(tableId,
+						TableStateMachine.allowedSources(TableStateMachine.AVAILABLE),
+						TableStateMachine.AVAILABLE);
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+		System.out.printf("table contention: %d rounds x %d clients in %d ms (%.0f transitions/s)%n",
+				ROUNDS, CLIENTS, elapsedMs, ROUNDS * (CLIENTS + 1) * 1000.0 / Math.max(elapsedMs, 1));
+	}
+}
@@ -0,0 +1,44 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class ResourceVersionsTest {
+
+	@Test
+	void localFanoutCountsEveryWriteOnce() {
+		ResourceVersions versions = new ResourceVersions("local", Duration.ofSeconds(2));
+
+		versions.bumpTables();
+
+		assertEquals(1, versions.tablesVersion());
+		assertTrue(versions.tablesSettled());
+	}
+
+	@Test
+	void changeStreamCountsOnlyRelayedChanges() {
+		ResourceVersions versions = new ResourceVersions("change-stream", Duration.ofMinutes(1));
+		assertTrue(versions.tablesSettled());
+
+		versions.bumpTables();
+		assertEquals(0, versions.tablesVersion());
+		assertFalse(versions.tablesSettled());
+
+		versions.tablesChanged();
+		assertEquals(1, versions.tablesVersion());
+	}
+
+	@Test
+	void localWriteSettlesAfterGrace() {
+		ResourceVersions versions = new ResourceVersions("change-stream", Duration.ZERO);
+
+		versions.bumpTables();
+
+		assertTrue(versions.tablesSettled());
+	}
+}
@@ -0,0 +1,64 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.backend.controller.WebSocketController;
+import com.example.backend.dto.TableResponseDto;
+import com.example.backend.model.Table;
+
+/**
+ * Admin edits that leave the status alone must still reach the snapshot that
+ * STOMP subscribers receive.
+ */
+@SpringBootTest
+class TableLiveStateTest {
+
+	@Autowired
+	private TableService tableService;
+
+	@Autowired
+	private OutboxDispatcher outboxDispatcher;
+
+	@Autowired
+	private WebSocketController webSocketController;
+
+	@Test
+	void editingSeatsUpdatesSubscribeSnapshot() throws InterruptedException {
+		Table table = new Table();
+		table.setTableNumber(901);
+		table.setSeats(2);
+		Table created = tableService.createTable(table);
+
+		Table edit = new Table();
+		edit.setTableNumber(901);
+		edit.setSeats(6);
+		edit.setStatus(created.getStatus());
+		tableService.updateTable(created.getId(), edit);
+
+		assertEquals(6, awaitSeats(6, () -> webSocketController.subscribeTable(created.getId()).getTable()));
+		assertEquals(6, awaitSeats(6, () -> webSocketController.subscribeTables().stream()
+				.filter(t -> created.getId().equals(t.getId()))
+				.findFirst()
+				.orElse(null)));
+	}
+
+	// outbox được phát ở luồng nền; tự gọi dispatch cho tới khi snapshot đổi
+	private Integer awaitSeats(int expected, Supplier<TableResponseDto> snapshot) throws InterruptedException {
+		for (int attempt = 0; attempt < 50; attempt++) {
+			outboxDispatcher.dispatch();
+			TableResponseDto current = snapshot.get();
+			if (current != null && Integer.valueOf(expected).equals(current.getSeats())) {
+				return current.getSeats();
+			}
+			Thread.sleep(100);
+		}
+		TableResponseDto current = snapshot.get();
+		return current != null ? current.getSeats() : null;
+	}
+}
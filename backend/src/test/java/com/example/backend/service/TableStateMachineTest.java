@@ -0,0 +1,37 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TableStateMachineTest {
+
+	@Test
+	void bookingRequiresAvailableTable() {
+		assertTrue(TableStateMachine.canTransition("AVAILABLE", "PENDING"));
+		assertFalse(TableStateMachine.canTransition("PENDING", "PENDING"));
+		assertFalse(TableStateMachine.canTransition("OCCUPIED", "PENDING"));
+	}
+
+	@Test
+	void checkInRequiresFreeOrBookedTable() {
+		assertTrue(TableStateMachine.canTransition("AVAILABLE", "OCCUPIED"));
+		assertTrue(TableStateMachine.canTransition("PENDING", "OCCUPIED"));
+		assertFalse(TableStateMachine.canTransition("OCCUPIED", "OCCUPIED"));
+	}
+
+	@Test
+	void releaseRequiresBookedOrOccupiedTable() {
+		assertTrue(TableStateMachine.canTransition("PENDING", "AVAILABLE"));
+		assertTrue(TableStateMachine.canTransition("OCCUPIED", "AVAILABLE"));
+		assertFalse(TableStateMachine.canTransition("AVAILABLE", "AVAILABLE"));
+	}
+
+	@Test
+	void unknownTargetIsRejected() {
+		assertFalse(TableStateMachine.canTransition("AVAILABLE", "PAID"));
+		assertThrows(IllegalArgumentException.class, () -> TableStateMachine.allowedSources("PAID"));
+	}
+}
@@ -16,11 +16,43 @@ api.interceptors.request.use(config => {
 	return config;
 });
 
+// Refresh token chỉ dùng được một lần, nên các request cùng lúc dùng chung một lần refresh
+let refreshing = null;
+
+const refreshAccessToken = () => {
+	if (!refreshing) {
+		refreshing = api
+			.post('/auth/refresh', null, { skipAuthRefresh: true })
+			.then(response => {
+				localStorage.setItem('token', response.data.token);
+				return response.data.token;
+			})
+			.finally(() => {
+				refreshing = null;
+			});
+	}
+	return refreshing;
+};
+
 // Response interceptor để xử lý lỗi authentication
 api.interceptors.response.use(
 	response => response,
-	error => {
-		if (error.response?.status === 401) {
+	async error => {
+		const config = error.config;
+		if (error.response?.status === 401 && config && !config.skipAuthRefresh && !config._retried) {
+			const url = config.url || '';
+			if (!url.startsWith('/auth/login') && !url.startsWith('/auth/logout')) {
+				try {
+					const token = await refreshAccessToken();
+					config._retried = true;
+					config.headers.Authorization = `Bearer ${token}`;
+					return api(config);
+				} catch {
+					// refresh token cũng hết hạn, đăng nhập lại
+				}
+			}
+		}
+		if (error.response?.status === 401 && !error.config?.url?.startsWith('/auth/login')) {
 			// Token hết hạn hoặc không hợp lệ
 			localStorage.removeItem('token');
 			localStorage.removeItem('user');
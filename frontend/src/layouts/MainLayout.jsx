@@ -23,7 +23,7 @@ export default function MainLayout() {
         const subscription = subscribe(destination, (message) => {
             try {
                 const evt = JSON.parse(message.body);
-                if (evt.userId === currentUserId && evt.action === 'updated' && evt.status === 'CONFIRMED') {
+                if (evt.userId === currentUserId && (evt.eventType ?? evt.action) === 'updated' && evt.status === 'CONFIRMED') {
                     setNotificationCount(c => c + 1);
                     setNotifications(list => [{
                         id: evt.orderId,
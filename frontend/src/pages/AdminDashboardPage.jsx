@@ -3,6 +3,7 @@ import toast from 'react-hot-toast';
 import api from '../api/axios';
 import ConfirmDialog from '../components/ConfirmDialog';
 import { useWebSocketSubscriptions } from '../hooks/useWebSocketSubscriptions';
+import { mergeDelta } from '../services/websocket';
 
 export default function AdminDashboardPage() {
     const [tables, setTables] = useState([]);
@@ -81,14 +82,17 @@ export default function AdminDashboardPage() {
             callback: (message) => {
                 try {
                     const orderUpdate = JSON.parse(message.body);
+                    const eventType = orderUpdate.eventType ?? orderUpdate.action;
                     setOrders(currentOrders => {
-                        if (orderUpdate.action === 'created') {
+                        if (eventType === 'created') {
                             return [...currentOrders, orderUpdate.order];
-                        } else if (orderUpdate.action === 'updated') {
+                        } else if (eventType === 'updated') {
                             return currentOrders.map(order =>
-                                order.id === orderUpdate.order.id ? orderUpdate.order : order
+                                order.id === orderUpdate.orderId
+                                    ? (orderUpdate.delta ? mergeDelta(order, orderUpdate.order ?? {}) : orderUpdate.order)
+                                    : order
                             );
-                        } else if (orderUpdate.action === 'deleted') {
+                        } else if (eventType === 'deleted') {
                             return currentOrders.filter(order => order.id !== orderUpdate.orderId);
                         }
                         return currentOrders;
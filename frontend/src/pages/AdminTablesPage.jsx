@@ -163,7 +163,6 @@ export default function AdminTablesPage() {
                                 >
                                     <option value="AVAILABLE">Trống</option>
                                     <option value="OCCUPIED">Có khách</option>
-                                    <option value="PAID">Đã thanh toán</option>
                                 </select>
                             </div>
                         </div>
@@ -217,7 +216,6 @@ export default function AdminTablesPage() {
                             >
                                 <option value="AVAILABLE">Trống</option>
                                 <option value="OCCUPIED">Có khách</option>
-                                <option value="PAID">Đã thanh toán</option>
                             </select>
 
                             {/* Actions */}
@@ -11,6 +11,8 @@ export default function CustomerBookingPage() {
     const [selectedTable, setSelectedTable] = useState(null);
     const [cart, setCart] = useState([]);
     const recentlyBookedTableRef = useRef(null);
+    // giữ nguyên key khi gửi lại sau lỗi mạng để server không tạo đơn trùng
+    const bookingKeyRef = useRef(null);
     const availableToastShownRef = useRef(new Set());
     const { user, logout } = useAuth(); // thêm logout
     const { isConnected, subscribe, unsubscribe } = useWebSocket();
@@ -44,7 +46,7 @@ export default function CustomerBookingPage() {
     const handleTableStatusUpdate = useCallback((event) => {
         setTables(currentTables => {
             let updatedTables = [...currentTables];
-            switch (event.action) {
+            switch (event.eventType ?? event.action) {
                 case 'UPDATE':
                     if (event.status === 'AVAILABLE') {
                         const existingIndex = updatedTables.findIndex(table => table.id === event.tableId);
@@ -136,7 +138,9 @@ export default function CustomerBookingPage() {
 
         try {
             const orderData = { tableId: selectedTable, userId: user.id, items: cart.map(i => ({ menuItemId: i.menuItemId, quantity: i.quantity })) };
-            await api.post('/orders/book', orderData);
+            bookingKeyRef.current ??= crypto.randomUUID?.() ?? `${Date.now()}-${Math.random().toString(36).slice(2)}`;
+            await api.post('/orders/book', orderData, { headers: { 'Idempotency-Key': bookingKeyRef.current } });
+            bookingKeyRef.current = null;
             toast.success('Đặt bàn thành công!');
             recentlyBookedTableRef.current = selectedTable;
             setSelectedTable(null);
@@ -144,6 +148,7 @@ export default function CustomerBookingPage() {
             fetchTables();
             setTimeout(() => { recentlyBookedTableRef.current = null; }, 2000);
         } catch (err) {
+            if (err.response) bookingKeyRef.current = null;
             toast.error(err.response?.data?.error || 'Không thể đặt bàn');
         }
     };
@@ -177,3 +177,15 @@ class WebSocketService {
 
 const websocketService = new WebSocketService();
 export default websocketService;
+
+// Frame "delta" chỉ chứa các field thay đổi, gộp đệ quy vào state hiện tại
+export function mergeDelta(target, delta) {
+	if (!target || typeof target !== 'object' || Array.isArray(delta)) return delta;
+	const merged = { ...target };
+	Object.entries(delta).forEach(([key, value]) => {
+		merged[key] = value && typeof value === 'object' && !Array.isArray(value)
+			? mergeDelta(target[key], value)
+			: value;
+	});
+	return merged;
+}